@@ -0,0 +1,74 @@
+package com.realestate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.realestate.model.Property;
+import com.realestate.model.PropertyImage;
+import com.realestate.model.Role;
+import com.realestate.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * In-memory entities shaped like real listings, for benchmarks that don't need a database.
+ */
+final class BenchmarkFixtures {
+    
+    static final String[] DISTRICTS = {"Colombo", "Gampaha", "Kandy", "Galle", "Kurunegala", "Matara"};
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static User user(long id) {
+        Role role = new Role(1L, Role.RoleName.ROLE_USER);
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3s6bzpFq6bEf4Zr5Qj6wRyK");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+    
+    static Property property(long id, User owner) {
+        Property property = new Property();
+        property.setId(id);
+        property.setTitle("Spacious " + (id % 5 + 1) + " bedroom house with garden");
+        property.setDescription("A well maintained family home close to schools, shops and public transport. ".repeat(8));
+        property.setType(Property.PropertyType.HOUSE);
+        property.setListingType(id % 3 == 0 ? Property.ListingType.RENT : Property.ListingType.SALE);
+        property.setPrice(BigDecimal.valueOf(25_000_000L + id * 1_000));
+        property.setAddress(id + " Temple Road");
+        property.setDistrict(DISTRICTS[(int) (id % DISTRICTS.length)]);
+        property.setCity(property.getDistrict());
+        property.setBedrooms((int) (id % 5 + 1));
+        property.setBathrooms((int) (id % 3 + 1));
+        property.setLandSize(BigDecimal.valueOf(12.5));
+        property.setFloorSize(BigDecimal.valueOf(1850));
+        property.setParkingSpaces(2);
+        property.setOwner(owner);
+        property.setStatus(Property.PropertyStatus.APPROVED);
+        property.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(id));
+        property.setUpdatedAt(property.getCreatedAt());
+        for (int i = 0; i < 4; i++) {
+            PropertyImage image = new PropertyImage();
+            image.setId(id * 10 + i);
+            image.setImageUrl("http://localhost:8083/uploads/" + id + "-" + i + "_photo.jpg");
+            image.setProperty(property);
+            property.getImages().add(image);
+        }
+        return property;
+    }
+    
+    // Same date handling as the ObjectMapper Spring Boot configures for the web layer
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.realestate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.cache.JsonFragment;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.security.UserDetailsImpl;
+import com.realestate.service.PropertyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO conversion and response serialization for a listing page, without a database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyDtoBenchmark {
+    
+    @Param({"12"})
+    private int pageSize;
+    
+    private final PropertyService propertyService = new PropertyService();
+    private final ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+    // Stands in for the response buffer; ObjectMapper closes its target, which is a no-op here
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    
+    private User owner;
+    private Property property;
+    private Page<PropertyDTO> dtoPage;
+    private Page<JsonFragment> fragmentPage;
+    
+    @Setup
+    public void setUp() throws IOException {
+        ReflectionTestUtils.setField(propertyService, "meterRegistry", new SimpleMeterRegistry());
+        owner = BenchmarkFixtures.user(1);
+        property = BenchmarkFixtures.property(1, owner);
+        
+        List<PropertyDTO> dtos = new ArrayList<>();
+        List<JsonFragment> fragments = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            PropertyDTO dto = propertyService.convertToDTO(BenchmarkFixtures.property(id, owner));
+            dtos.add(dto);
+            fragments.add(new JsonFragment(objectMapper.writeValueAsBytes(dto)));
+        }
+        dtoPage = new PageImpl<>(dtos, PageRequest.of(0, pageSize), 1000);
+        fragmentPage = new PageImpl<>(fragments, PageRequest.of(0, pageSize), 1000);
+    }
+    
+    @Benchmark
+    public PropertyDTO convertToDTO() {
+        return propertyService.convertToDTO(property);
+    }
+    
+    @Benchmark
+    public UserDetailsImpl buildUserDetails() {
+        return UserDetailsImpl.build(owner);
+    }
+    
+    @Benchmark
+    public int serializeDtoPage() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, dtoPage);
+        return buffer.size();
+    }
+    
+    @Benchmark
+    public int serializeCachedFragmentPage() throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, fragmentPage);
+        return buffer.size();
+    }
+}
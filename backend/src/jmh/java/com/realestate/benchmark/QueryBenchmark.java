@@ -0,0 +1,133 @@
+package com.realestate.benchmark;
+
+import com.realestate.RealEstateApplication;
+import com.realestate.cache.JsonFragment;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Favorite;
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.UserRepository;
+import com.realestate.service.FavoriteService;
+import com.realestate.service.PropertyService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter, search and favorite paths through the real service layer, against the
+ * "local" profile's embedded H2 database (PostgreSQL mode). Each call runs in one
+ * read-only transaction. With open-in-view off, that is the session a request gets
+ * from the service method's own @Transactional(readOnly = true), which joins it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dspring.devtools.restart.enabled=false")
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    @Param({"5000"})
+    private int properties;
+
+    @Param({"40"})
+    private int favorites;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+    private FavoriteService favoriteService;
+    private TransactionTemplate request;
+
+    private String username;
+    private Long favoritePropertyId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RealEstateApplication.class)
+                .profiles("local")
+                .run("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                        "--logging.level.com.realestate=WARN");
+        propertyService = context.getBean(PropertyService.class);
+        favoriteService = context.getBean(FavoriteService.class);
+        request = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        request.setReadOnly(true);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PropertyRepository propertyRepository = context.getBean(PropertyRepository.class);
+        FavoriteRepository favoriteRepository = context.getBean(FavoriteRepository.class);
+
+        User owner = BenchmarkFixtures.user(0);
+        owner.setId(null);
+        owner.setRoles(new HashSet<>());
+        owner = userRepository.save(owner);
+        username = owner.getUsername();
+
+        List<Property> batch = new ArrayList<>();
+        for (long i = 1; i <= properties; i++) {
+            Property property = BenchmarkFixtures.property(i, owner);
+            property.setId(null);
+            property.getImages().forEach(image -> image.setId(null));
+            batch.add(property);
+            if (batch.size() == 500 || i == properties) {
+                propertyRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+
+        List<Property> saved = propertyRepository.findAll();
+        for (int i = 0; i < favorites && i < saved.size(); i++) {
+            Favorite favorite = new Favorite();
+            favorite.setUser(owner);
+            favorite.setProperty(saved.get(i * (saved.size() / favorites)));
+            favoriteRepository.save(favorite);
+        }
+        favoritePropertyId = saved.get(0).getId();
+    }
+
+    @Benchmark
+    public Page<JsonFragment> filterByDistrictAndListingType() {
+        return request.execute(status -> propertyService.filterProperties(
+                null, Property.ListingType.SALE, "Kandy", null, null, null, null, 0, 12));
+    }
+
+    @Benchmark
+    public Page<JsonFragment> filterByPriceAndBedrooms() {
+        return request.execute(status -> propertyService.filterProperties(
+                Property.PropertyType.HOUSE, null, null, null,
+                BigDecimal.valueOf(26_000_000L), BigDecimal.valueOf(28_000_000L), 3, 0, 12));
+    }
+
+    @Benchmark
+    public Page<JsonFragment> searchKeyword() {
+        return request.execute(status -> propertyService.searchProperties("garden", 0, 12));
+    }
+
+    @Benchmark
+    public List<PropertyDTO> userFavorites() {
+        return request.execute(status -> favoriteService.getUserFavorites(username));
+    }
+
+    @Benchmark
+    public boolean isFavorite() {
+        return request.execute(status -> favoriteService.isFavorite(favoritePropertyId, username));
+    }
+}
@@ -0,0 +1,342 @@
+package com.realestate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.realestate.RealEstateApplication;
+import com.realestate.config.SyntheticDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * End-to-end load test: boots the application on the "local" profile (embedded H2),
+ * seeds it with {@link SyntheticDataGenerator}, then drives each REST endpoint in turn
+ * from a pool of closed-loop clients and reports p50/p99 latency and throughput.
+ * A final "mixed" scenario runs many more clients doing reads and image uploads together,
+ * which is where thread-per-request blocking shows.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec@loadtest
+ *   mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="--properties=200000 --threads=32 --duration=30"
+ *   mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="--threading=both --scenarios=mixed"
+ *
+ * Options: --properties, --threads, --warmup (seconds), --duration (seconds), --out,
+ * --threading=platform|virtual|both (request threads, see the "virtual" profile),
+ * --scenarios=endpoints,mixed,storm, --mixed-clients, --upload-ratio, --upload-kb, --storm-clients.
+ * "storm" (not run by default) measures filter latency alone and then during a login flood.
+ * Results are printed and written as JSON to target/loadtest-results.json.
+ */
+public class LoadTest {
+
+    private final Map<String, String> options;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private long[] approvedIds;
+    private long[] ownPropertyIds;
+
+    private static final String[] DISTRICTS = {"Colombo", "Gampaha", "Kandy", "Galle", "Kurunegala", "Kalutara"};
+    private static final String[] KEYWORDS = {"garden", "pool", "sea view", "Nugegoda", "Kandy", "apartment"};
+    private static final String BOUNDARY = "loadtest-boundary";
+
+    LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "15")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String threading = options.getOrDefault("threading", "platform");
+        List<String> modes = threading.equals("both") ? List.of("platform", "virtual") : List.of(threading);
+        Path out = Paths.get(options.getOrDefault("out", "target/loadtest-results.json"));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            System.out.println("== " + mode + " threads");
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(RealEstateApplication.class)
+                    .profiles("local", "seed")
+                    // Command-line arguments so they win over application.properties
+                    .run("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                            "--logging.level.com.realestate=WARN", "--logging.level.com.realestate.config=INFO",
+                            "--app.seed.properties=" + options.getOrDefault("properties", "50000"),
+                            "--app.upload-dir=target/loadtest-uploads/",
+                            // Every simulated client comes from one address
+                            "--app.rate-limit.enabled=false",
+                            "--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+            try {
+                results.put(mode, new LoadTest(options).run(context));
+            } finally {
+                context.close();
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        mapper.writeValue(out.toFile(), modes.size() == 1 ? results.get(modes.get(0)) : results);
+        System.out.println("Results written to " + out);
+    }
+
+    Map<String, Map<String, Object>> run(ConfigurableApplicationContext context) throws Exception {
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        approvedIds = jdbcTemplate
+                .queryForList("SELECT id FROM properties WHERE status = 'APPROVED'", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        String username = SyntheticDataGenerator.USERNAME_PREFIX + 1;
+        // Uploads are spread over the user's listings so no single image collection grows without bound
+        ownPropertyIds = jdbcTemplate.queryForList("SELECT p.id FROM properties p JOIN users u ON u.id = p.owner_id " +
+                "WHERE u.username = ?", Long.class, username).stream().mapToLong(Long::longValue).toArray();
+        token = login(username, context.getEnvironment().getProperty("app.seed.password", "password123"));
+
+        String scenarioOption = options.getOrDefault("scenarios", "endpoints,mixed");
+        Map<String, Function<SplittableRandom, Call>> scenarios = new LinkedHashMap<>();
+        if (scenarioOption.contains("endpoints")) {
+            scenarios.put("GET /api/properties", r -> call("GET /api/properties", get("/api/properties?page=" + r.nextInt(20) + "&size=12")));
+            scenarios.put("GET /api/properties/{id}", r -> call("GET /api/properties/{id}", get("/api/properties/" + randomId(r))));
+            scenarios.put("GET /api/properties/filter", r -> call("GET /api/properties/filter", filter(r)));
+            scenarios.put("GET /api/properties/search", r -> call("GET /api/properties/search", get("/api/properties/search?keyword="
+                    + KEYWORDS[r.nextInt(KEYWORDS.length)].replace(" ", "%20") + "&size=12")));
+            scenarios.put("GET /api/properties/latest", r -> call("GET /api/properties/latest", get("/api/properties/latest")));
+            scenarios.put("GET /api/properties/featured", r -> call("GET /api/properties/featured", get("/api/properties/featured")));
+            scenarios.put("GET /api/favorites", r -> call("GET /api/favorites", authorized("/api/favorites")));
+            scenarios.put("GET /api/favorites/{id}/check", r -> call("GET /api/favorites/{id}/check",
+                    authorized("/api/favorites/" + randomId(r) + "/check")));
+        }
+
+        System.out.printf("%-52s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<SplittableRandom, Call>> scenario : scenarios.entrySet()) {
+            drive(scenario.getValue(), threads, warmup);
+            report(results, drive(scenario.getValue(), threads, duration), "");
+        }
+
+        if (scenarioOption.contains("mixed")) {
+            int clients = Integer.parseInt(options.getOrDefault("mixed-clients", "400"));
+            double uploadRatio = Double.parseDouble(options.getOrDefault("upload-ratio", "0.1"));
+            byte[] upload = multipartImage(Integer.parseInt(options.getOrDefault("upload-kb", "256")) * 1024);
+            Function<SplittableRandom, Call> mixed = r -> r.nextDouble() < uploadRatio
+                    ? call("POST /api/properties/{id}/images", upload(ownPropertyIds[r.nextInt(ownPropertyIds.length)], upload))
+                    : r.nextBoolean()
+                        ? call("GET /api/properties/{id}", get("/api/properties/" + randomId(r)))
+                        : call("GET /api/properties/filter", filter(r));
+            drive(mixed, clients, warmup);
+            report(results, drive(mixed, clients, duration), "mixed " + clients + " clients: ");
+        }
+
+        if (scenarioOption.contains("storm")) {
+            // Listing reads on their own, then again while other clients flood the login endpoint
+            int stormClients = Integer.parseInt(options.getOrDefault("storm-clients", "64"));
+            int users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username LIKE ?", Integer.class,
+                    SyntheticDataGenerator.USERNAME_PREFIX + "%");
+            String password = context.getEnvironment().getProperty("app.seed.password", "password123");
+            Function<SplittableRandom, Call> search = r -> call("GET /api/properties/filter", filter(r));
+            Function<SplittableRandom, Call> logins = r -> call("POST /api/auth/login",
+                    loginRequest(SyntheticDataGenerator.USERNAME_PREFIX + r.nextInt(users), password));
+
+            drive(search, threads, warmup);
+            report(results, drive(search, threads, duration), "storm baseline: ");
+            CompletableFuture<Map<String, Samples>> storm = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return drive(logins, stormClients, duration);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            report(results, drive(search, threads, duration), "storm " + stormClients + " logins: ");
+            report(results, storm.get(), "storm " + stormClients + " logins: ");
+        }
+        return results;
+    }
+
+    private void report(Map<String, Map<String, Object>> results, Map<String, Samples> samplesByLabel, String prefix) {
+        Samples total = new Samples();
+        for (Map.Entry<String, Samples> entry : samplesByLabel.entrySet()) {
+            print(results, prefix + entry.getKey(), entry.getValue());
+            total.merge(entry.getValue());
+        }
+        if (samplesByLabel.size() > 1) {
+            print(results, prefix + "all", total);
+        }
+    }
+
+    private void print(Map<String, Map<String, Object>> results, String name, Samples samples) {
+        Map<String, Object> result = summarize(samples, duration);
+        results.put(name, result);
+        System.out.printf("%-52s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", name,
+                result.get("requests"), result.get("errors"), result.get("throughputPerSecond"),
+                result.get("p50Ms"), result.get("p99Ms"), result.get("maxMs"));
+    }
+
+    /** Closed loop: each client thread issues the next request as soon as the previous one completes. */
+    private Map<String, Samples> drive(Function<SplittableRandom, Call> scenario, int clients, Duration length) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<Map<String, Samples>>> futures = new ArrayList<>();
+        for (int t = 0; t < clients; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            futures.add(pool.submit(() -> {
+                Map<String, Samples> samples = new LinkedHashMap<>();
+                while (System.nanoTime() < deadline) {
+                    Call call = scenario.apply(random);
+                    Samples target = samples.computeIfAbsent(call.label(), label -> new Samples());
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(call.request(), HttpResponse.BodyHandlers.discarding());
+                        target.add(System.nanoTime() - start, response.statusCode() >= 400);
+                    } catch (Exception e) {
+                        target.add(System.nanoTime() - start, true);
+                    }
+                }
+                return samples;
+            }));
+        }
+        Map<String, Samples> all = new LinkedHashMap<>();
+        for (Future<Map<String, Samples>> future : futures) {
+            future.get().forEach((label, samples) -> all.computeIfAbsent(label, l -> new Samples()).merge(samples));
+        }
+        pool.shutdown();
+        return all;
+    }
+
+    private static Map<String, Object> summarize(Samples samples, Duration length) {
+        long[] sorted = Arrays.copyOf(samples.latencies, samples.size);
+        Arrays.sort(sorted);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", samples.size);
+        result.put("errors", samples.errors);
+        result.put("throughputPerSecond", samples.size / (length.toMillis() / 1000.0));
+        result.put("p50Ms", percentile(sorted, 0.50));
+        result.put("p99Ms", percentile(sorted, 0.99));
+        result.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = client.send(loginRequest(username, password), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode());
+        }
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    private HttpRequest loginRequest(String username, String password) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+    }
+
+    private long randomId(SplittableRandom random) {
+        return approvedIds[random.nextInt(approvedIds.length)];
+    }
+
+    private HttpRequest filter(SplittableRandom random) {
+        return get("/api/properties/filter?district=" + DISTRICTS[random.nextInt(DISTRICTS.length)]
+                + "&listingType=SALE&minBedrooms=" + (1 + random.nextInt(4)) + "&page=" + random.nextInt(5) + "&size=12");
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    private HttpRequest upload(long propertyId, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/properties/" + propertyId + "/images"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static byte[] multipartImage(int size) {
+        byte[] image = new byte[size];
+        new SplittableRandom(size).nextBytes(image);
+        ByteArrayOutputStream body = new ByteArrayOutputStream(size + 256);
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"images\"; filename=\"load.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static Call call(String label, HttpRequest request) {
+        return new Call(label, request);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private record Call(String label, HttpRequest request) {
+    }
+
+    private static final class Samples {
+        long[] latencies = new long[1024];
+        int size;
+        long errors;
+
+        void add(long nanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (error) errors++;
+        }
+
+        void merge(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.realestate.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other nodes which entities changed so they can drop what they cached. Events
+ * are collected after commit (or straight away outside a transaction), de-duplicated, and
+ * sent every app.cache-bus.flush-ms in messages of at most app.cache-bus.max-batch events:
+ * "<node> P12 P13 U5". A node applies every message except its own, having already
+ * evicted locally when it made the change.
+ *
+ * Metrics: cache.bus.events{direction=out|in}, cache.bus.messages{direction} and
+ * cache.bus.gaps (full flushes after the transport may have missed messages).
+ */
+@Component
+public class CacheInvalidationBus {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    
+    @Autowired
+    private InvalidationTransport transport;
+    
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.cache-bus.flush-ms:100}")
+    private long flushMs;
+    
+    // Keeps a message well under PostgreSQL's 8000-byte NOTIFY payload limit
+    @Value("${app.cache-bus.max-batch:200}")
+    private int maxBatch;
+    
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<EntityChangeEvent> pending = ConcurrentHashMap.newKeySet();
+    
+    private ScheduledExecutorService flusher;
+    private Counter eventsOut;
+    private Counter eventsIn;
+    private Counter messagesOut;
+    private Counter messagesIn;
+    private Counter gaps;
+    
+    @PostConstruct
+    public void init() {
+        eventsOut = meterRegistry.counter("cache.bus.events", "direction", "out");
+        eventsIn = meterRegistry.counter("cache.bus.events", "direction", "in");
+        messagesOut = meterRegistry.counter("cache.bus.messages", "direction", "out");
+        messagesIn = meterRegistry.counter("cache.bus.messages", "direction", "in");
+        gaps = meterRegistry.counter("cache.bus.gaps");
+        
+        transport.start(this::receive, this::onGap);
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cache-bus-flush").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+        transport.stop();
+    }
+    
+    // Rolled-back changes never reach other nodes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        pending.add(event);
+    }
+    
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<EntityChangeEvent> batch = new ArrayList<>(Math.min(pending.size(), maxBatch));
+        Iterator<EntityChangeEvent> it = pending.iterator();
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == maxBatch || !it.hasNext()) {
+                send(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private void send(List<EntityChangeEvent> batch) {
+        StringBuilder message = new StringBuilder(nodeId);
+        for (EntityChangeEvent event : batch) {
+            message.append(' ').append(event.encode());
+        }
+        try {
+            transport.send(message.toString());
+            messagesOut.increment();
+            eventsOut.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Other nodes keep stale entries until their own TTLs expire; don't retry into a failing database
+            logger.warn("Could not publish {} cache invalidations: {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    private void receive(String message) {
+        String[] tokens = message.split(" ");
+        if (tokens[0].equals(nodeId)) {
+            return;
+        }
+        List<EntityChangeEvent> events = new ArrayList<>(tokens.length - 1);
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                events.add(EntityChangeEvent.decode(tokens[i]));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", message);
+            return;
+        }
+        messagesIn.increment();
+        eventsIn.increment(events.size());
+        cacheInvalidator.invalidate(events);
+    }
+    
+    private void onGap() {
+        gaps.increment();
+        cacheInvalidator.invalidateAll();
+    }
+}
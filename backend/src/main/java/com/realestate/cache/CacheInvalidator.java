@@ -0,0 +1,119 @@
+package com.realestate.cache;
+
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.service.FavoriteRecommender;
+import com.realestate.service.FuzzySearchIndex;
+import com.realestate.service.ListingFeedService;
+import com.realestate.service.PropertyService;
+import com.realestate.service.SavedSearchService;
+import com.realestate.service.SimilarListingsIndex;
+import com.realestate.service.SuggestionIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops this node's cached copies of entities another node has changed: the Hibernate
+ * second-level cache, the pre-serialized listing JSON and the listings version. Saved
+ * searches are re-read into this node's matcher, changed listings are queued for the
+ * typeahead, fuzzy search and similar-listings indexes, users whose favorites changed for the
+ * recommendation model, and listing lifecycle events are passed on to this node's feed
+ * subscribers.
+ */
+@Component
+public class CacheInvalidator {
+    
+    private static final String PROPERTY_IMAGES = Property.class.getName() + ".images";
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PropertyJsonCache propertyJsonCache;
+    
+    @Autowired
+    @Lazy
+    private PropertyService propertyService;
+    
+    @Autowired
+    @Lazy
+    private SavedSearchService savedSearchService;
+    
+    @Autowired
+    @Lazy
+    private ListingFeedService listingFeedService;
+    
+    @Autowired
+    @Lazy
+    private SuggestionIndex suggestionIndex;
+    
+    @Autowired
+    @Lazy
+    private FuzzySearchIndex fuzzySearchIndex;
+    
+    @Autowired
+    @Lazy
+    private SimilarListingsIndex similarListingsIndex;
+    
+    @Autowired
+    @Lazy
+    private FavoriteRecommender favoriteRecommender;
+    
+    public void invalidate(List<EntityChangeEvent> events) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean properties = false;
+        boolean users = false;
+        List<EntityChangeEvent> listingEvents = new ArrayList<>();
+        for (EntityChangeEvent event : events) {
+            switch (event.type()) {
+                case PROPERTY -> {
+                    cache.evictEntityData(Property.class, event.id());
+                    cache.evictCollectionData(PROPERTY_IMAGES, event.id());
+                    propertyJsonCache.evict(event.id());
+                    suggestionIndex.listingChanged(event.id());
+                    fuzzySearchIndex.listingChanged(event.id());
+                    similarListingsIndex.listingChanged(event.id());
+                    properties = true;
+                }
+                case USER -> {
+                    cache.evictEntityData(User.class, event.id());
+                    cache.evictCollectionData(USER_ROLES, event.id());
+                    users = true;
+                }
+                case SAVED_SEARCH -> savedSearchService.reload(event.id());
+                case FAVORITES -> favoriteRecommender.userChanged(event.id());
+                case LISTING_STATUS, LISTING_PRICE -> listingEvents.add(event);
+            }
+        }
+        if (properties) {
+            propertyService.clearListingsVersion();
+        }
+        if (users) {
+            // Cached findByUsername results (including "no such user") can't be evicted by id
+            cache.evictDefaultQueryRegion();
+        }
+        // After the evictions, so the feed reads the listing as committed
+        for (EntityChangeEvent event : listingEvents) {
+            listingFeedService.relay(event.id(), event.type() == EntityChangeEvent.Type.LISTING_PRICE);
+        }
+    }
+    
+    public void invalidateAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        propertyJsonCache.evictAll();
+        propertyService.clearListingsVersion();
+        savedSearchService.loadMatcher();
+        suggestionIndex.requestRebuild();
+        fuzzySearchIndex.requestRebuild();
+        similarListingsIndex.requestRebuild();
+        favoriteRecommender.requestRebuild();
+    }
+}
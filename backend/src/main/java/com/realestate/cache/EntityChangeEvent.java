@@ -0,0 +1,67 @@
+package com.realestate.cache;
+
+/**
+ * A committed change to one entity, as published by the services through the application
+ * event publisher. CacheInvalidationBus forwards these to the other nodes.
+ */
+public record EntityChangeEvent(Type type, long id) {
+    
+    public enum Type {
+        PROPERTY('P'),
+        USER('U'),
+        SAVED_SEARCH('S'),
+        // A user's favorites changed; the id is the user's
+        FAVORITES('F'),
+        // Listing lifecycle events for the SSE feeds: a status change, or a price change
+        LISTING_STATUS('L'),
+        LISTING_PRICE('$');
+        
+        private final char code;
+        
+        Type(char code) {
+            this.code = code;
+        }
+        
+        static Type of(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity code " + code);
+        }
+    }
+    
+    public static EntityChangeEvent property(long id) {
+        return new EntityChangeEvent(Type.PROPERTY, id);
+    }
+    
+    public static EntityChangeEvent user(long id) {
+        return new EntityChangeEvent(Type.USER, id);
+    }
+    
+    public static EntityChangeEvent savedSearch(long id) {
+        return new EntityChangeEvent(Type.SAVED_SEARCH, id);
+    }
+    
+    public static EntityChangeEvent favorites(long userId) {
+        return new EntityChangeEvent(Type.FAVORITES, userId);
+    }
+    
+    public static EntityChangeEvent listingStatus(long id) {
+        return new EntityChangeEvent(Type.LISTING_STATUS, id);
+    }
+    
+    public static EntityChangeEvent listingPrice(long id) {
+        return new EntityChangeEvent(Type.LISTING_PRICE, id);
+    }
+    
+    // Wire form, e.g. "P42"
+    String encode() {
+        return type.code + Long.toString(id);
+    }
+    
+    static EntityChangeEvent decode(String token) {
+        return new EntityChangeEvent(Type.of(token.charAt(0)), Long.parseLong(token.substring(1)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.realestate.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages to every application context in this JVM, synchronously. With one
+ * context that only echoes back to the sender; two contexts started side by side behave
+ * like two nodes, which is what tests and the local profile need.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache-bus.transport", havingValue = "memory", matchIfMissing = true)
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+    
+    private static final List<Consumer<String>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    
+    private Consumer<String> subscriber;
+    private Runnable onGap;
+    
+    @Override
+    public void send(String message) {
+        for (Consumer<String> target : SUBSCRIBERS) {
+            target.accept(message);
+        }
+    }
+    
+    @Override
+    public void start(Consumer<String> onMessage, Runnable onGap) {
+        subscriber = onMessage;
+        this.onGap = onGap;
+        SUBSCRIBERS.add(subscriber);
+    }
+    
+    // Nothing is lost in memory; stands in for a reconnect of a real transport
+    void reportGap() {
+        onGap.run();
+    }
+    
+    @Override
+    public void stop() {
+        SUBSCRIBERS.remove(subscriber);
+    }
+}
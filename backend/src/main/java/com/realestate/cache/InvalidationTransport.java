@@ -0,0 +1,17 @@
+package com.realestate.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries CacheInvalidationBus messages to every node, including the sender (which
+ * ignores its own). Delivery is best effort; a transport that may have missed messages
+ * reports that through onGap so the node can drop everything it has cached.
+ */
+public interface InvalidationTransport {
+    
+    void send(String message);
+    
+    void start(Consumer<String> onMessage, Runnable onGap);
+    
+    void stop();
+}
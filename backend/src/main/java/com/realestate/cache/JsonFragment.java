@@ -0,0 +1,140 @@
+package com.realestate.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A value that has already been serialized to UTF-8 JSON. When it appears inside a
+ * Page or List, Jackson's UTF-8 generator copies the bytes straight into its output
+ * buffer instead of walking the object again.
+ */
+public final class JsonFragment implements JsonSerializable, SerializableString {
+    
+    private final byte[] utf8;
+    
+    // Only needed by char-based generators (e.g. writeValueAsString), so decoded lazily
+    private volatile String value;
+    
+    public JsonFragment(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+    
+    public int size() {
+        return utf8.length;
+    }
+    
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+    
+    @Override
+    public String getValue() {
+        String v = value;
+        if (v == null) {
+            v = new String(utf8, StandardCharsets.UTF_8);
+            value = v;
+        }
+        return v;
+    }
+    
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+    
+    @Override
+    public byte[] asUnquotedUTF8() {
+        // Generators only read from this array
+        return utf8;
+    }
+    
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+    
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String v = getValue();
+        if (offset + v.length() > buffer.length) {
+            return -1;
+        }
+        v.getChars(0, v.length(), buffer, offset);
+        return v.length();
+    }
+    
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+    
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (buffer.remaining() < utf8.length) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+    
+    // Quoted forms are never used for raw values; fall back to Jackson's own implementation
+    private SerializedString quoted() {
+        return new SerializedString(getValue());
+    }
+    
+    @Override
+    public char[] asQuotedChars() {
+        return quoted().asQuotedChars();
+    }
+    
+    @Override
+    public byte[] asQuotedUTF8() {
+        return quoted().asQuotedUTF8();
+    }
+    
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return quoted().appendQuotedUTF8(buffer, offset);
+    }
+    
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return quoted().appendQuoted(buffer, offset);
+    }
+    
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return quoted().writeQuotedUTF8(out);
+    }
+    
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return quoted().putQuotedUTF8(buffer);
+    }
+    
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
@@ -0,0 +1,101 @@
+package com.realestate.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * LISTEN/NOTIFY on the primary database. Messages go out through the pool with
+ * pg_notify; each node keeps one extra connection of its own, outside the pool, that
+ * LISTENs and polls for notifications. When that connection drops, notifications sent
+ * in the meantime are lost, so every reconnect is reported as a gap.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache-bus.transport", havingValue = "postgres")
+public class PostgresInvalidationTransport implements InvalidationTransport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    
+    @Value("${app.cache-bus.channel:cache_invalidation}")
+    private String channel;
+    
+    private volatile boolean running;
+    private Thread listener;
+    
+    @Override
+    public void send(String message) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, message);
+    }
+    
+    @Override
+    public void start(Consumer<String> onMessage, Runnable onGap) {
+        running = true;
+        listener = Thread.ofPlatform().name("cache-bus-listener").daemon().start(() -> listen(onMessage, onGap));
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+    
+    private void listen(Consumer<String> onMessage, Runnable onGap) {
+        // Set once a connection has dropped: whatever was sent until we LISTEN again is lost
+        boolean missed = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (missed) {
+                    logger.info("Cache invalidation listener reconnected");
+                    onGap.run();
+                    missed = false;
+                }
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onMessage.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+                missed = true;
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.realestate.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Pre-serialized PropertyDTO JSON keyed by property id. An entry is only served while
+ * its updatedAt matches the entity being rendered, so a stale entry is never returned
+ * even if an explicit eviction is missed.
+ *
+ * Renders of the same listing version that overlap (e.g. one listing in several home page
+ * parts) share a single conversion through SingleFlight, so its owner and images are looked
+ * up once. The conversion runs on the first caller's thread, in its session and outside any
+ * map lock; the others wait up to app.coalescing.timeout-ms on its future, which parks rather
+ * than pins a virtual thread. If it fails, they try again themselves.
+ */
+@Component
+public class PropertyJsonCache {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.json-cache.max-entries:20000}")
+    private long maxEntries;
+    
+    @Value("${app.coalescing.timeout-ms:5000}")
+    private long renderTimeoutMs;
+    
+    private Cache<Long, Entry> cache;
+    private SingleFlight<Version, Entry> renders;
+    
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "property.json");
+        renders = new SingleFlight<>("property.json", renderTimeoutMs, true, meterRegistry);
+    }
+    
+    public JsonFragment get(Property property, Function<Property, PropertyDTO> converter) {
+        Entry entry = cache.getIfPresent(property.getId());
+        if (entry != null && entry.updatedAt.equals(property.getUpdatedAt())) {
+            return entry.fragment;
+        }
+        
+        return renders.execute(new Version(property.getId(), property.getUpdatedAt()), () -> {
+            // A render that finished just before this one registered has already filled the cache
+            Entry rendered = cache.getIfPresent(property.getId());
+            if (rendered == null || !rendered.updatedAt.equals(property.getUpdatedAt())) {
+                rendered = render(property, converter);
+                cache.put(property.getId(), rendered);
+            }
+            return rendered;
+        }).fragment;
+    }
+    
+    private Entry render(Property property, Function<Property, PropertyDTO> converter) {
+        try {
+            return new Entry(property.getUpdatedAt(), new JsonFragment(objectMapper.writeValueAsBytes(converter.apply(property))));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize property " + property.getId(), e);
+        }
+    }
+    
+    public void evict(Long propertyId) {
+        cache.invalidate(propertyId);
+    }
+    
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+    
+    private record Entry(LocalDateTime updatedAt, JsonFragment fragment) {}
+    
+    private record Version(Long propertyId, LocalDateTime updatedAt) {}
+}
@@ -0,0 +1,93 @@
+package com.realestate.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller (leader) runs
+ * the loader on its own thread; callers arriving while it is in flight wait on its
+ * future instead of hitting the database again. Nothing is cached once the load
+ * completes, and there is no lock beyond the per-key map entry.
+ *
+ * A failed load is dropped before its followers wake. By default they rethrow the leader's
+ * failure; with retryFailed they call again, so one of them leads a fresh load.
+ *
+ * Metrics: singleflight.calls{name, role=leader|follower} (coalescing ratio is
+ * follower / total), singleflight.timeouts{name} and the singleflight.in_flight gauge.
+ */
+public class SingleFlight<K, V> {
+    
+    private final String name;
+    private final long timeoutMs;
+    private final boolean retryFailed;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+    
+    public SingleFlight(String name, long timeoutMs, MeterRegistry meterRegistry) {
+        this(name, timeoutMs, false, meterRegistry);
+    }
+    
+    public SingleFlight(String name, long timeoutMs, boolean retryFailed, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        this.retryFailed = retryFailed;
+        this.leaders = meterRegistry.counter("singleflight.calls", "name", name, "role", "leader");
+        this.followers = meterRegistry.counter("singleflight.calls", "name", name, "role", "follower");
+        this.timeouts = meterRegistry.counter("singleflight.timeouts", "name", name);
+        meterRegistry.gaugeMapSize("singleflight.in_flight", Tags.of("name", name), inFlight);
+    }
+    
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        
+        if (existing == null) {
+            leaders.increment();
+            try {
+                V value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (Throwable t) {
+                // Removed first so that a retrying follower can't pick the failed future up again
+                inFlight.remove(key, mine);
+                mine.completeExceptionally(t);
+                throw t;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+        
+        followers.increment();
+        try {
+            return existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for " + name + " load");
+        } catch (ExecutionException e) {
+            if (retryFailed) {
+                return execute(key, loader);
+            }
+            // Followers see the same failure the leader did
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for " + name + " load", e);
+        }
+    }
+}
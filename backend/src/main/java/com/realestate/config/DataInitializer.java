@@ -5,11 +5,13 @@ import com.realestate.repository.RoleRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import lombok.Data;
 
 @Component
+@Order(0)
 @Data
 public class DataInitializer implements CommandLineRunner {
     
@@ -0,0 +1,38 @@
+package com.realestate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * Hands Hibernate the JCache manager for the second-level cache regions. Given only
+ * hibernate.javax.cache.uri, Hibernate opens it as a java.net.URL, and the classpath:
+ * scheme only resolves once embedded Tomcat has registered its URL handler, so contexts
+ * without a web server (tests, jobs) could not start.
+ *
+ * The provider hands out one manager per URI and class loader, so each context asks with
+ * a class loader of its own: two contexts in one JVM (the two-node tests) then keep
+ * separate regions, and closing one doesn't close the other's.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // Held here because the provider only keeps a weak reference to it
+    private final ClassLoader cacheClassLoader = new ClassLoader(getClass().getClassLoader()) {};
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${spring.jpa.properties.hibernate.javax.cache.provider}") String provider,
+                                              @Value("${spring.jpa.properties.hibernate.javax.cache.uri}") String uri) {
+        return Caching.getCachingProvider(provider).getCacheManager(URI.create(uri), cacheClassLoader);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
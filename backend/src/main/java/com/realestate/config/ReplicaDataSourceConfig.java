@@ -0,0 +1,126 @@
+package com.realestate.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read replicas, switched on by setting app.datasource.replica.urls (see the "replica"
+ * profile). Replaces Boot's single pool with primary + replica pools behind
+ * ReplicaRoutingDataSource; @Transactional(readOnly = true) service methods read from a
+ * replica, everything else goes to the primary.
+ *
+ * Requires spring.jpa.open-in-view=false: with the session held open for the whole request,
+ * the first transaction's connection would be reused for every later one, writes included.
+ * Also requires the second-level cache off: an entity loaded from a lagging replica would be
+ * cached (for every node) right after the writer's eviction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.pin-after-write-ms:5000}")
+    private long pinAfterWriteMs;
+
+    @Value("${spring.jpa.open-in-view:true}")
+    private boolean openInView;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:true}")
+    private boolean secondLevelCache;
+
+    @Value("${app.datasource.replica.lag-check-ms:1000}")
+    private long lagCheckMs;
+
+    private ReplicaRoutingDataSource routing;
+    private ScheduledExecutorService lagChecker;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties) {
+        if (openInView) {
+            throw new IllegalStateException("app.datasource.replica.urls needs spring.jpa.open-in-view=false");
+        }
+        if (secondLevelCache) {
+            throw new IllegalStateException("app.datasource.replica.urls needs spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        }
+        HikariDataSource primary = pool("primary", properties.getUrl(), properties.getUsername(), properties.getPassword(), properties);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (StringUtils.hasText(url)) {
+                HikariDataSource replica = pool("replica-" + (replicas.size() + 1), url.trim(), replicaUsername, replicaPassword, properties);
+                replica.setReadOnly(true);
+                replicas.add(replica);
+            }
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicas, maxLagMs, pinAfterWriteMs, meterRegistry);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        // Own thread rather than the shared scheduler: a replica must leave rotation as soon as it
+        // falls behind, not once the archive job or an index rebuild has freed the scheduler
+        lagChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-lag-check").daemon().factory());
+        lagChecker.scheduleWithFixedDelay(routing::checkReplicas, lagCheckMs, lagCheckMs, TimeUnit.MILLISECONDS);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    // Each pool takes the usual spring.datasource.hikari.* settings
+    private HikariDataSource pool(String name, String url, String username, String password, DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,176 @@
+package com.realestate.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the
+ * primary. It must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for a connection before the read-only flag is published, the lazy proxy defers that
+ * until the first statement.
+ *
+ * A replica is skipped while its last lag check failed or reported more than maxLagMs;
+ * with none usable, reads fall back to the primary. A user who has just run a read-write
+ * transaction reads from the primary for pinAfterWriteMs so they see their own changes.
+ * That memory is per node, so pinAfterWriteMs should comfortably exceed maxLagMs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    // Zero when the server isn't a standby or has replayed everything it has received
+    private static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+                    + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter routedPrimary;
+    private final Counter routedReplica;
+    private final Counter pinned;
+    private final Counter fallback;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    long maxLagMs, long pinAfterWriteMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(pinAfterWriteMs, TimeUnit.MILLISECONDS)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.pool);
+            meterRegistry.gauge("datasource.replica.lag", Tags.of("replica", replica.name), replica, r -> r.lagMs);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.routedPrimary = meterRegistry.counter("datasource.route", "target", "primary", "reason", "not-read-only");
+        this.routedReplica = meterRegistry.counter("datasource.route", "target", "replica", "reason", "read-only");
+        this.pinned = meterRegistry.counter("datasource.route", "target", "primary", "reason", "read-your-writes");
+        this.fallback = meterRegistry.counter("datasource.route", "target", "primary", "reason", "no-healthy-replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+            routedPrimary.increment();
+            return PRIMARY;
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            pinned.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                routedReplica.increment();
+                return replica.name;
+            }
+        }
+        fallback.increment();
+        return PRIMARY;
+    }
+
+    /** Measures each replica's replay lag and takes it out of rotation when it's too far behind or down. */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                replica.lagMs = measureLagMs(connection);
+                healthy = replica.lagMs <= maxLagMs;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagMs = -1;
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    logger.info("Replica {} back in rotation (lag {} ms)", replica.name, replica.lagMs);
+                } else {
+                    logger.warn("Replica {} taken out of rotation (lag {} ms, max {} ms)", replica.name, replica.lagMs, maxLagMs);
+                }
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static long measureLagMs(Connection connection) throws SQLException {
+        if (!connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres")) {
+            // No replication to ask about (e.g. two local H2 databases); just check it answers
+            if (!connection.isValid(1)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        // Starts out of rotation until the first check has passed
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+
+        Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.realestate.config;
+
+import com.realestate.model.Property;
+import com.realestate.model.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills the database with a large, deterministic synthetic dataset (users, properties,
+ * images, favorites) for load testing. Only active under the "seed" profile, e.g.
+ * --spring.profiles.active=local,seed --app.seed.properties=1000000
+ *
+ * Rows are written with batched JDBC rather than through JPA; the same seed always
+ * produces the same data.
+ */
+@Component
+@Profile("seed")
+@Order(1)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String USERNAME_PREFIX = "seed_user_";
+
+    // Fixed so that timestamps (and therefore ETags) are reproducible across runs
+    private static final LocalDateTime ANCHOR = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    // District, relative share of listings, price multiplier and main cities
+    private static final Object[][] DISTRICTS = {
+            {"Colombo", 22.0, 2.2, new String[]{"Colombo", "Dehiwala", "Nugegoda", "Maharagama", "Battaramulla", "Moratuwa"}},
+            {"Gampaha", 14.0, 1.3, new String[]{"Gampaha", "Negombo", "Kadawatha", "Ja-Ela", "Wattala"}},
+            {"Kalutara", 6.0, 1.0, new String[]{"Kalutara", "Panadura", "Horana", "Beruwala"}},
+            {"Kandy", 8.0, 1.2, new String[]{"Kandy", "Peradeniya", "Katugastota", "Gampola"}},
+            {"Matale", 1.5, 0.7, new String[]{"Matale", "Dambulla"}},
+            {"Nuwara Eliya", 2.0, 1.0, new String[]{"Nuwara Eliya", "Hatton"}},
+            {"Galle", 5.0, 1.2, new String[]{"Galle", "Hikkaduwa", "Unawatuna", "Ambalangoda"}},
+            {"Matara", 3.0, 0.9, new String[]{"Matara", "Weligama"}},
+            {"Hambantota", 1.5, 0.7, new String[]{"Hambantota", "Tangalle", "Tissamaharama"}},
+            {"Jaffna", 2.0, 0.8, new String[]{"Jaffna", "Chavakachcheri"}},
+            {"Kilinochchi", 0.4, 0.5, new String[]{"Kilinochchi"}},
+            {"Mannar", 0.4, 0.5, new String[]{"Mannar"}},
+            {"Vavuniya", 0.6, 0.5, new String[]{"Vavuniya"}},
+            {"Mullaitivu", 0.3, 0.5, new String[]{"Mullaitivu"}},
+            {"Batticaloa", 1.2, 0.6, new String[]{"Batticaloa", "Kattankudy"}},
+            {"Ampara", 1.0, 0.6, new String[]{"Ampara", "Kalmunai"}},
+            {"Trincomalee", 1.2, 0.8, new String[]{"Trincomalee", "Kinniya"}},
+            {"Kurunegala", 5.0, 0.8, new String[]{"Kurunegala", "Kuliyapitiya"}},
+            {"Puttalam", 2.0, 0.7, new String[]{"Puttalam", "Chilaw", "Wennappuwa"}},
+            {"Anuradhapura", 2.5, 0.6, new String[]{"Anuradhapura", "Kekirawa"}},
+            {"Polonnaruwa", 1.0, 0.6, new String[]{"Polonnaruwa"}},
+            {"Badulla", 1.8, 0.7, new String[]{"Badulla", "Bandarawela", "Ella"}},
+            {"Monaragala", 0.8, 0.5, new String[]{"Monaragala", "Wellawaya"}},
+            {"Ratnapura", 2.5, 0.7, new String[]{"Ratnapura", "Embilipitiya", "Balangoda"}},
+            {"Kegalle", 2.0, 0.7, new String[]{"Kegalle", "Mawanella"}}
+    };
+
+    // Type, relative share and median sale price in LKR before the district multiplier
+    private static final Object[][] TYPES = {
+            {Property.PropertyType.HOUSE, 40.0, 28_000_000L},
+            {Property.PropertyType.LAND, 25.0, 12_000_000L},
+            {Property.PropertyType.APARTMENT, 18.0, 35_000_000L},
+            {Property.PropertyType.COMMERCIAL, 7.0, 75_000_000L},
+            {Property.PropertyType.VILLA, 6.0, 90_000_000L},
+            {Property.PropertyType.CONDO, 4.0, 55_000_000L}
+    };
+
+    private static final String[] FEATURES = {
+            "garden", "swimming pool", "sea view", "lake view", "solar panels", "A/C", "hot water",
+            "pantry cupboards", "servant quarters", "roof terrace", "gym", "24h security",
+            "backup generator", "paddy field view", "close to main road", "near schools"
+    };
+
+    private static final String[] IMAGE_NAMES = {
+            "front.jpg", "living.jpg", "kitchen.jpg", "bedroom.jpg", "bathroom.jpg", "garden.jpg", "view.jpg", "plan.jpg"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.properties:100000}")
+    private int propertyCount;
+
+    @Value("${app.seed.users:0}")
+    private int userCount;
+
+    @Value("${app.seed.favorites-per-user:5}")
+    private int favoritesPerUser;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.seed.password:password123}")
+    private String password;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    private double[] districtWeights;
+    private double[] typeWeights;
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, USERNAME_PREFIX + 0);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic dataset already present, skipping");
+            return;
+        }
+
+        int users = userCount > 0 ? userCount : Math.max(10, propertyCount / 20);
+        districtWeights = cumulativeWeights(DISTRICTS);
+        typeWeights = cumulativeWeights(TYPES);
+        Random random = new Random(randomSeed);
+
+        long start = System.currentTimeMillis();
+        long[] userIds = insertUsers(users);
+        long[] propertyIds = insertProperties(random, userIds);
+        long images = insertImages(random, propertyIds);
+        long favorites = insertFavorites(random, userIds, propertyIds);
+
+        logger.info("Seeded {} users, {} properties, {} images, {} favorites in {} ms",
+                userIds.length, propertyIds.length, images, favorites, System.currentTimeMillis() - start);
+    }
+
+    private long[] insertUsers(int count) {
+        // One hash for everyone; BCrypt per row would dominate the load time
+        String hash = passwordEncoder.encode(password);
+        Timestamp created = Timestamp.valueOf(ANCHOR.minusDays(730));
+
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{USERNAME_PREFIX + i, USERNAME_PREFIX + i + "@example.lk", hash,
+                    "Seed User " + i, String.format("07%08d", i % 100_000_000), created, created});
+            if (rows.size() == batchSize || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, full_name, phone, active, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, TRUE, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        long[] ids = idsOf("SELECT id FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%' ORDER BY id", count);
+
+        Long roleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = ?", Long.class, Role.RoleName.ROLE_USER.name());
+        for (int i = 0; i < ids.length; i++) {
+            rows.add(new Object[]{ids[i], roleId});
+            if (rows.size() == batchSize || i == ids.length - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return ids;
+    }
+
+    private long[] insertProperties(Random random, long[] userIds) {
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM properties", Long.class);
+
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < propertyCount; i++) {
+            rows.add(propertyRow(random, userIds));
+            if (rows.size() == batchSize || i == propertyCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO properties (title, description, type, listing_type, price, address, city, district, " +
+                        "bedrooms, bathrooms, land_size, floor_size, parking_spaces, owner_id, status, featured, approved_at, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+                if ((i + 1) % (batchSize * 100) == 0) {
+                    logger.info("Seeded {} / {} properties", i + 1, propertyCount);
+                }
+            }
+        }
+        return idsOf("SELECT id FROM properties WHERE id > " + before + " ORDER BY id", propertyCount);
+    }
+
+    private Object[] propertyRow(Random random, long[] userIds) {
+        Object[] district = DISTRICTS[pick(random, districtWeights)];
+        Object[] type = TYPES[pick(random, typeWeights)];
+        Property.PropertyType propertyType = (Property.PropertyType) type[0];
+        String[] cities = (String[]) district[3];
+        String city = cities[random.nextInt(cities.length)];
+
+        boolean land = propertyType == Property.PropertyType.LAND;
+        boolean rent = !land && random.nextDouble() < 0.3;
+
+        // Log-normal around the type median, scaled by district
+        double price = (Long) type[2] * (Double) district[2] * Math.exp(random.nextGaussian() * 0.45);
+        if (rent) {
+            price = price * 0.004; // monthly rent at roughly 5% gross yield
+        }
+        BigDecimal roundedPrice = BigDecimal.valueOf(price).setScale(-3, RoundingMode.HALF_UP).setScale(2);
+
+        Integer bedrooms = land ? null : bedrooms(random, propertyType);
+        Integer bathrooms = bedrooms == null ? null : Math.max(1, bedrooms - random.nextInt(2));
+        BigDecimal landSize = propertyType == Property.PropertyType.APARTMENT || propertyType == Property.PropertyType.CONDO
+                ? null : BigDecimal.valueOf(5 + random.nextInt(land ? 80 : 30)).setScale(2); // perches
+        BigDecimal floorSize = land ? null : BigDecimal.valueOf(600 + random.nextInt(3400)).setScale(2); // sq ft
+        Integer parking = land ? null : random.nextInt(4);
+
+        Property.PropertyStatus status = status(random, rent);
+        boolean approved = status != Property.PropertyStatus.PENDING && status != Property.PropertyStatus.REJECTED;
+        boolean featured = approved && random.nextDouble() < 0.01;
+
+        LocalDateTime created = ANCHOR.minusMinutes(random.nextInt(730 * 24 * 60));
+        LocalDateTime approvedAt = approved ? created.plusHours(1 + random.nextInt(72)) : null;
+        LocalDateTime updated = (approvedAt != null ? approvedAt : created).plusMinutes(random.nextInt(60 * 24 * 30));
+
+        String typeName = propertyType.name().charAt(0) + propertyType.name().substring(1).toLowerCase();
+        String title = (bedrooms != null ? bedrooms + " Bedroom " : "") + typeName + (rent ? " for Rent in " : " for Sale in ") + city;
+        String feature1 = FEATURES[random.nextInt(FEATURES.length)];
+        String feature2 = FEATURES[random.nextInt(FEATURES.length)];
+        String description = typeName + " in " + city + ", " + district[0] + " district with " + feature1 + " and " + feature2 + ".";
+        String address = (1 + random.nextInt(400)) + ", " + city + " Road, " + city;
+
+        return new Object[]{title, description, propertyType.name(), rent ? "RENT" : "SALE", roundedPrice, address, city, district[0],
+                bedrooms, bathrooms, landSize, floorSize, parking, userIds[random.nextInt(userIds.length)], status.name(), featured,
+                approvedAt != null ? Timestamp.valueOf(approvedAt) : null, Timestamp.valueOf(created), Timestamp.valueOf(updated)};
+    }
+
+    private static Integer bedrooms(Random random, Property.PropertyType type) {
+        double r = random.nextDouble();
+        switch (type) {
+            case APARTMENT:
+            case CONDO:
+                return r < 0.2 ? 1 : r < 0.6 ? 2 : r < 0.92 ? 3 : 4;
+            case COMMERCIAL:
+                return r < 0.7 ? 0 : 1 + random.nextInt(3);
+            case VILLA:
+                return 3 + random.nextInt(4);
+            default:
+                return r < 0.05 ? 1 : r < 0.2 ? 2 : r < 0.55 ? 3 : r < 0.85 ? 4 : r < 0.95 ? 5 : 6;
+        }
+    }
+
+    private static Property.PropertyStatus status(Random random, boolean rent) {
+        double r = random.nextDouble();
+        if (r < 0.85) return Property.PropertyStatus.APPROVED;
+        if (r < 0.93) return Property.PropertyStatus.PENDING;
+        if (r < 0.95) return Property.PropertyStatus.REJECTED;
+        return rent ? Property.PropertyStatus.RENTED : Property.PropertyStatus.SOLD;
+    }
+
+    private long insertImages(Random random, long[] propertyIds) {
+        String prefix = baseUrl + "/uploads/seed/";
+        long total = 0;
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < propertyIds.length; i++) {
+            int count = random.nextDouble() < 0.1 ? 0 : 1 + random.nextInt(IMAGE_NAMES.length);
+            for (int j = 0; j < count; j++) {
+                rows.add(new Object[]{prefix + propertyIds[i] + "_" + IMAGE_NAMES[j], propertyIds[i]});
+                if (rows.size() == batchSize) {
+                    jdbcTemplate.batchUpdate("INSERT INTO property_images (image_url, property_id) VALUES (?, ?)", rows);
+                    total += rows.size();
+                    rows.clear();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO property_images (image_url, property_id) VALUES (?, ?)", rows);
+            total += rows.size();
+        }
+        return total;
+    }
+
+    private long insertFavorites(Random random, long[] userIds, long[] propertyIds) {
+        long total = 0;
+        Timestamp created = Timestamp.valueOf(ANCHOR);
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        Set<Long> chosen = new HashSet<>();
+        for (long userId : userIds) {
+            // Geometric count per user, popularity skewed towards a small set of listings
+            int count = (int) Math.min(Math.min(50, propertyIds.length / 2), Math.round(-favoritesPerUser * Math.log(1 - random.nextDouble())));
+            chosen.clear();
+            while (chosen.size() < count) {
+                chosen.add(propertyIds[(int) (propertyIds.length * Math.pow(random.nextDouble(), 3))]);
+            }
+            for (Long propertyId : chosen) {
+                rows.add(new Object[]{userId, propertyId, created});
+            }
+            if (rows.size() >= batchSize) {
+                jdbcTemplate.batchUpdate("INSERT INTO favorites (user_id, property_id, created_at) VALUES (?, ?, ?)", rows);
+                total += rows.size();
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO favorites (user_id, property_id, created_at) VALUES (?, ?, ?)", rows);
+            total += rows.size();
+        }
+        return total;
+    }
+
+    private long[] idsOf(String sql, int expected) {
+        long[] ids = new long[expected];
+        int[] index = {0};
+        jdbcTemplate.query(sql, rs -> {
+            ids[index[0]++] = rs.getLong(1);
+        });
+        if (index[0] != expected) {
+            throw new RuntimeException("Expected " + expected + " seeded rows but found " + index[0]);
+        }
+        return ids;
+    }
+
+    private static double[] cumulativeWeights(Object[][] table) {
+        double[] cumulative = new double[table.length];
+        double sum = 0;
+        for (int i = 0; i < table.length; i++) {
+            sum += (Double) table[i][1];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -2,8 +2,14 @@ package com.realestate.config;
 
 import com.realestate.security.AuthEntryPointJwt;
 import com.realestate.security.AuthTokenFilter;
+import com.realestate.security.BulkheadPasswordEncoder;
+import com.realestate.security.RateLimitFilter;
 import com.realestate.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,7 +20,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -34,11 +39,37 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // BCrypt gets at most this many cores; 0 means half of what's available
+    @Value("${app.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+    
+    @Value("${app.password-hashing.queue-size:32}")
+    private int passwordHashingQueueSize;
+    
+    @Value("${app.password-hashing.timeout-ms:2000}")
+    private long passwordHashingTimeoutMs;
+    
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
     }
     
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+    
+    // Only runs inside the security chain, after the JWT filter, so it can key buckets by user
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -52,9 +83,13 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
     
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BulkheadPasswordEncoder passwordEncoder() {
+        int threads = passwordHashingThreads > 0
+                ? passwordHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BulkheadPasswordEncoder(new BCryptPasswordEncoder(), threads,
+                passwordHashingQueueSize, passwordHashingTimeoutMs, meterRegistry);
     }
     
     @Bean
@@ -64,21 +99,32 @@ public class WebSecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                // Error dispatches (e.g. 503 from ResponseStatusException) must not be turned into 401s
+                .requestMatchers("/error").permitAll()
+                // SSE streams complete on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/api/home").permitAll()
                 .requestMatchers("/api/properties").permitAll()
                 .requestMatchers("/api/properties/search").permitAll()
                 .requestMatchers("/api/properties/filter").permitAll()
                 .requestMatchers("/api/properties/{id}").permitAll()
+                .requestMatchers("/api/properties/{id}/similar").permitAll()
                 .requestMatchers("/api/properties/featured").permitAll()
                 .requestMatchers("/api/properties/latest").permitAll()
+                .requestMatchers("/api/properties/stream").permitAll()
+                .requestMatchers("/api/properties/suggest").permitAll()
                 .requestMatchers("/api/properties/{id}/photos/{photoId}").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .cors(cors -> cors.configurationSource(corsConfigurationSource()));
         
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
         
         return http.build();
     }
@@ -89,6 +135,7 @@ public class WebSecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Search-Mode"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
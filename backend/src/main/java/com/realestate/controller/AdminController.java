@@ -1,14 +1,20 @@
 package com.realestate.controller;
 
 import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.SlowQueryDTO;
+import com.realestate.dto.SlowQueryOffenderDTO;
 import com.realestate.dto.UserDTO;
+import com.realestate.monitoring.SlowQueryLog;
+import com.realestate.service.ListingFeedService;
 import com.realestate.service.PropertyService;
 import com.realestate.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,6 +30,12 @@ public class AdminController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+    
+    @Autowired
+    private ListingFeedService listingFeedService;
+    
     // Property Management
     @GetMapping("/properties")
     public ResponseEntity<Page<PropertyDTO>> getAllProperties(
@@ -51,6 +63,12 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
     
+    // Live moderation queue: PENDING as listings are submitted, APPROVED/REJECTED/REMOVED as they leave it
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamModerationEvents(@RequestParam(required = false) List<String> district) {
+        return listingFeedService.subscribeModeration(district);
+    }
+    
     // User Management
     @GetMapping("/users")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -69,5 +87,15 @@ public class AdminController {
         userService.toggleUserStatus(id);
         return ResponseEntity.ok().build();
     }
+    
+    // Diagnostics
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryOffenderDTO>> getSlowQueryOffenders(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(slowQueryLog.getTopOffenders(limit));
+    }
+    
+    @GetMapping("/slow-queries/recent")
+    public ResponseEntity<List<SlowQueryDTO>> getRecentSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.getRecent());
+    }
 }
-
@@ -1,5 +1,6 @@
 package com.realestate.controller;
 
+import com.realestate.cache.EntityChangeEvent;
 import com.realestate.model.Role;
 import com.realestate.model.User;
 import com.realestate.payload.request.LoginRequest;
@@ -9,12 +10,18 @@ import com.realestate.payload.response.MessageResponse;
 import com.realestate.repository.RoleRepository;
 import com.realestate.repository.UserRepository;
 import com.realestate.security.JwtUtils;
+import com.realestate.security.LoginAttemptThrottle;
 import com.realestate.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -42,13 +49,35 @@ public class AuthController {
     @Autowired
     PasswordEncoder encoder;
     
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    
     @Autowired
     JwtUtils jwtUtils;
     
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+    
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        // Checked before authenticating so throttled attempts never reach BCrypt
+        long retryAfter = loginAttemptThrottle.blockedForSeconds(loginRequest.getUsername(), ip);
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new MessageResponse("Error: Too many failed login attempts, try again later"));
+        }
+        
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        } catch (BadCredentialsException e) {
+            loginAttemptThrottle.recordFailure(loginRequest.getUsername(), ip);
+            throw e;
+        }
+        loginAttemptThrottle.recordSuccess(loginRequest.getUsername());
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
@@ -112,6 +141,8 @@ public class AuthController {
         
         user.setRoles(roles);
         userRepository.save(user);
+        // Other nodes may have cached a "no such user" lookup for this username
+        eventPublisher.publishEvent(EntityChangeEvent.user(user.getId()));
         
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
@@ -1,6 +1,8 @@
 package com.realestate.controller;
 
+import com.realestate.cache.JsonFragment;
 import com.realestate.dto.PropertyDTO;
+import com.realestate.security.UserDetailsImpl;
 import com.realestate.service.FavoriteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +42,14 @@ public class FavoriteController {
         return ResponseEntity.ok(favorites);
     }
     
+    // Served from the in-memory model; the user id comes from the token, so no user lookup
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<JsonFragment>> getRecommendations(@RequestParam(defaultValue = "10") int limit,
+                                                                 Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return ResponseEntity.ok(favoriteService.getRecommendations(userId, Math.min(Math.max(1, limit), 50)));
+    }
+    
     @GetMapping("/{propertyId}/check")
     public ResponseEntity<Boolean> isFavorite(@PathVariable Long propertyId, Authentication authentication) {
         String username = authentication.getName();
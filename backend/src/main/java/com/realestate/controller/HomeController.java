@@ -0,0 +1,27 @@
+package com.realestate.controller;
+
+import com.realestate.dto.HomePageDTO;
+import com.realestate.security.UserDetailsImpl;
+import com.realestate.service.HomePageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/home")
+public class HomeController {
+    
+    @Autowired
+    private HomePageService homePageService;
+    
+    // Public; a valid token adds the caller's favorite ids
+    @GetMapping
+    public ResponseEntity<HomePageDTO> getHomePage(@RequestParam(defaultValue = "10") int size,
+                                                   Authentication authentication) {
+        Long userId = authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user
+                ? user.getId() : null;
+        return ResponseEntity.ok(homePageService.getHomePage(userId, Math.min(Math.max(1, size), 50)));
+    }
+}
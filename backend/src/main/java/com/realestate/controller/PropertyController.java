@@ -1,20 +1,32 @@
 package com.realestate.controller;
 
+import com.realestate.cache.JsonFragment;
 import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.SuggestionDTO;
 import com.realestate.model.Property;
+import com.realestate.service.FuzzySearchIndex;
+import com.realestate.service.ListingFeedService;
+import com.realestate.service.PropertyReadCoalescer;
 import com.realestate.service.PropertyService;
+import com.realestate.service.SuggestionIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -25,6 +37,18 @@ public class PropertyController {
     @Autowired
     private PropertyService propertyService;
     
+    @Autowired
+    private PropertyReadCoalescer propertyReadCoalescer;
+    
+    @Autowired
+    private ListingFeedService listingFeedService;
+    
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private FuzzySearchIndex fuzzySearchIndex;
+    
     // ... Keep create, update, delete, get endpoints as they are ...
     
     @PostMapping
@@ -72,12 +96,25 @@ public class PropertyController {
         }
     }
 
+    // Conditional GETs: the version probe runs before any entity is loaded, and
+    // checkNotModified() sets the 304 status and validator headers itself.
+    // Clients must revalidate (no-cache), which is what makes the 304s useful.
+
+    // view=summary returns compact cards (PropertySummaryDTO) for grid views
     @GetMapping
-    public ResponseEntity<Page<PropertyDTO>> getAllProperties(
+    public ResponseEntity<Page<?>> getAllProperties(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<PropertyDTO> properties = propertyService.getAllProperties(page, size);
-        return ResponseEntity.ok(properties);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (request.checkNotModified(listingsETag())) {
+            return null;
+        }
+        if (isSummary(view)) {
+            return revalidated(propertyService.getAllPropertySummaries(page, size));
+        }
+        Page<JsonFragment> properties = propertyService.getAllProperties(page, size);
+        return revalidated(properties);
     }
     
     @GetMapping("/my-properties")
@@ -91,13 +128,29 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
     
+    // fuzzy=true forces typo-tolerant matching, fuzzy=false exact only; by default exact
+    // searches with few hits are topped up with fuzzy ones. X-Search-Mode says which it was.
     @GetMapping("/search")
-    public ResponseEntity<Page<PropertyDTO>> searchProperties(@RequestParam String keyword, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(propertyService.searchProperties(keyword, page, size));
+    public ResponseEntity<Page<JsonFragment>> searchProperties(@RequestParam String keyword, @RequestParam(required = false) Boolean fuzzy, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size, WebRequest request) {
+        suggestionIndex.recordSearch(keyword);
+        if (request.checkNotModified(searchETag(fuzzy))) {
+            return null;
+        }
+        PropertyService.SearchResults results = propertyService.searchProperties(keyword, fuzzy, page, size);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Search-Mode", results.fuzzy() ? "fuzzy" : "exact")
+                .body(results.page());
+    }
+
+    // Typeahead for the search box, served from memory so it can run on every keystroke
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(suggestionIndex.suggest(q, Math.max(1, limit)));
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<Page<PropertyDTO>> filterProperties(
+    public ResponseEntity<Page<?>> filterProperties(
             @RequestParam(required = false) Property.PropertyType type,
             @RequestParam(required = false) Property.ListingType listingType,
             @RequestParam(required = false) String district,
@@ -106,23 +159,87 @@ public class PropertyController {
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer minBedrooms,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(propertyService.filterProperties(type, listingType, district, city, minPrice, maxPrice, minBedrooms, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+        suggestionIndex.recordSearch(district);
+        suggestionIndex.recordSearch(city);
+        if (request.checkNotModified(listingsETag())) {
+            return null;
+        }
+        if (isSummary(view)) {
+            return revalidated(propertyService.filterPropertySummaries(type, listingType, district, city, minPrice, maxPrice, minBedrooms, page, size));
+        }
+        return revalidated(propertyService.filterProperties(type, listingType, district, city, minPrice, maxPrice, minBedrooms, page, size));
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<List<PropertyDTO>> getLatestProperties() {
-        return ResponseEntity.ok(propertyService.getLatestProperties());
+    public ResponseEntity<List<?>> getLatestProperties(@RequestParam(required = false) String view, WebRequest request) {
+        if (request.checkNotModified(listingsETag())) {
+            return null;
+        }
+        if (isSummary(view)) {
+            return revalidated(propertyService.getLatestPropertySummaries());
+        }
+        return revalidated(propertyReadCoalescer.getLatestProperties());
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<PropertyDTO>> getFeaturedProperties() {
-        return ResponseEntity.ok(propertyService.getFeaturedProperties());
+    public ResponseEntity<List<?>> getFeaturedProperties(@RequestParam(required = false) String view, WebRequest request) {
+        if (request.checkNotModified(listingsETag())) {
+            return null;
+        }
+        if (isSummary(view)) {
+            return revalidated(propertyService.getFeaturedPropertySummaries());
+        }
+        return revalidated(propertyReadCoalescer.getFeaturedProperties());
+    }
+
+    // Live listing events (approved, price changed, sold/rented, removed) for e.g.
+    // ?district=Colombo&district=Gampaha or ?propertyId=12; no parameters means everything
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamListingEvents(@RequestParam(required = false) List<String> district,
+                                          @RequestParam(required = false) List<Long> propertyId) {
+        return listingFeedService.subscribe(district, propertyId);
+    }
+
+    // "Similar listings" for a detail page: same sale/rent kind, close in price, size, rooms, type and district
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<JsonFragment>> getSimilarProperties(@PathVariable Long id, @RequestParam(defaultValue = "6") int limit) {
+        return revalidated(propertyService.getSimilarProperties(id, Math.min(Math.max(1, limit), 24)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PropertyDTO> getProperty(@PathVariable Long id) {
-        PropertyDTO property = propertyService.getPropertyById(id);
-        return ResponseEntity.ok(property);
+    public ResponseEntity<PropertyDTO> getProperty(@PathVariable Long id, WebRequest request) {
+        LocalDateTime version = propertyService.getPropertyVersion(id);
+        long lastModified = version.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified("\"" + id + "-" + Long.toHexString(PropertyService.versionStamp(version)) + "\"", lastModified)) {
+            return null;
+        }
+        PropertyDTO property = propertyReadCoalescer.getPropertyById(id);
+        return revalidated(property);
+    }
+
+    // List responses only carry an ETag: deleting a listing doesn't move MAX(updatedAt),
+    // so Last-Modified alone could wrongly report a list as unchanged.
+    private String listingsETag() {
+        return "\"L" + propertyService.getListingsVersion() + "\"";
+    }
+
+    // Fuzzy matches come from FuzzySearchIndex, which catches up with the database a refresh
+    // later, so a response that may contain them is also tied to the index generation
+    private String searchETag(Boolean fuzzy) {
+        if (Boolean.FALSE.equals(fuzzy)) {
+            return listingsETag();
+        }
+        return "\"L" + propertyService.getListingsVersion() + "-F" + fuzzySearchIndex.generation() + "\"";
+    }
+
+    private static boolean isSummary(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    private <T> ResponseEntity<T> revalidated(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.realestate.controller;
+
+import com.realestate.dto.SavedSearchAlertDTO;
+import com.realestate.dto.SavedSearchDTO;
+import com.realestate.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/saved-searches")
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+public class SavedSearchController {
+    
+    @Autowired
+    private SavedSearchService savedSearchService;
+    
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDTO>> getUserSearches(Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.getUserSearches(authentication.getName()));
+    }
+    
+    @PostMapping
+    public ResponseEntity<SavedSearchDTO> createSearch(@Valid @RequestBody SavedSearchDTO savedSearchDTO,
+                                                       Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.createSearch(savedSearchDTO, authentication.getName()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteSearch(@PathVariable Long id, Authentication authentication) {
+        savedSearchService.deleteSearch(id, authentication.getName());
+        return ResponseEntity.ok().build();
+    }
+    
+    @GetMapping("/alerts")
+    public ResponseEntity<List<SavedSearchAlertDTO>> getUserAlerts(@RequestParam(defaultValue = "50") int limit,
+                                                                   Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.getUserAlerts(authentication.getName(), Math.min(Math.max(limit, 1), 200)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.realestate.controller;
+
+import com.realestate.payload.response.MessageResponse;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Connection pool exhaustion (no connection within hikari.connection-timeout) is load
+ * shedding, not a server bug: answer 503 with Retry-After instead of a 500. Behind the
+ * replica routing's lazy connection proxy the same timeout surfaces at the first statement
+ * instead, as a DataAccessResourceFailureException.
+ */
+@RestControllerAdvice
+public class ServiceUnavailableAdvice {
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<MessageResponse> handlePoolExhausted(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("Service is busy, please retry"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.realestate.dto;
+
+import com.realestate.cache.JsonFragment;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class HomePageDTO {
+    private List<JsonFragment> featured;
+    private List<JsonFragment> latest;
+    private Page<JsonFragment> listings;
+    // Only for signed-in users
+    private List<Long> favoriteIds;
+    // Parts that failed or timed out; they are null above and can be fetched from their own endpoints
+    private List<String> unavailable = new ArrayList<>();
+}
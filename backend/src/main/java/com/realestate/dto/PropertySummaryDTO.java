@@ -0,0 +1,24 @@
+package com.realestate.dto;
+
+import com.realestate.model.Property;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Compact card representation for list views (?view=summary)
+@Data
+public class PropertySummaryDTO {
+    private Long id;
+    private String title;
+    private Property.PropertyType type;
+    private Property.ListingType listingType;
+    private BigDecimal price;
+    private String city;
+    private String district;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private BigDecimal floorSize;
+    private BigDecimal landSize;
+    private Boolean featured;
+    private String thumbnailUrl;
+}
@@ -0,0 +1,13 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SavedSearchAlertDTO {
+    private Long id;
+    private Long savedSearchId;
+    private Long propertyId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.realestate.dto;
+
+import com.realestate.model.Property;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class SavedSearchDTO {
+    private Long id;
+    @NotBlank private String name;
+    private Property.PropertyType type;
+    private Property.ListingType listingType;
+    private String district;
+    private String city;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minBedrooms;
+    private String keyword;
+    private LocalDateTime createdAt;
+}
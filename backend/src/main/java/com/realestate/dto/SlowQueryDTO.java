@@ -0,0 +1,16 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SlowQueryDTO {
+    private String sql;
+    private List<String> parameters;
+    private long elapsedMs;
+    private String source;
+    private LocalDateTime executedAt;
+    private String plan;
+}
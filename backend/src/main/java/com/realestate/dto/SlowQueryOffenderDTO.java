@@ -0,0 +1,13 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+@Data
+public class SlowQueryOffenderDTO {
+    private String shape;
+    private String source;
+    private long count;
+    private long totalMs;
+    private long maxMs;
+    private SlowQueryDTO slowest;
+}
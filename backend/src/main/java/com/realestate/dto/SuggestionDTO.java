@@ -0,0 +1,12 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String text;
+    private String type;
+    private long listings;
+}
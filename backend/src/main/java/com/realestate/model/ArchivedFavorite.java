@@ -0,0 +1,27 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "favorites_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedFavorite {
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Long propertyId;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,81 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A closed listing (sold, rented or rejected) moved out of "properties" by
+ * ListingArchiveService. Same columns, keyed by the original id, plus when it was archived.
+ */
+@Entity
+@Table(name = "properties_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedProperty {
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Property.PropertyType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Property.ListingType listingType;
+    
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+    
+    @Column(nullable = false)
+    private String address;
+    
+    @Column(nullable = false)
+    private String city;
+    
+    @Column(nullable = false)
+    private String district;
+    
+    private Integer bedrooms;
+    private Integer bathrooms;
+    
+    @Column(precision = 10, scale = 2)
+    private BigDecimal landSize;
+    
+    @Column(precision = 10, scale = 2)
+    private BigDecimal floorSize;
+    
+    private Integer parkingSpaces;
+    
+    @Column(nullable = false)
+    private Long ownerId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Property.PropertyStatus status;
+    
+    @Column(nullable = false)
+    private Boolean featured;
+    
+    private LocalDateTime approvedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,20 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "property_images_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPropertyImage {
+    @Id
+    private Long id;
+    
+    private String imageUrl;
+    
+    private Long propertyId;
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data; // Ensure Data is imported
 import lombok.NoArgsConstructor; // Ensure NoArgsConstructor is imported
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,6 +16,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "properties")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "properties")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -69,6 +72,7 @@ public class Property {
     // --- CHANGED: One Property has Many Images ---
     // --- CHANGED: One Property has Many Images ---
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "properties.images")
     private List<PropertyImage> images = new ArrayList<>();
 
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "property_images")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "property-images")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,52 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A user's standing search: the findByFilters criteria plus a keyword. Null criteria match
+ * anything. Newly approved listings are matched against these by SavedSearchMatcher.
+ */
+@Entity
+@Table(name = "saved_searches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Enumerated(EnumType.STRING)
+    private Property.PropertyType type;
+    
+    @Enumerated(EnumType.STRING)
+    private Property.ListingType listingType;
+    
+    private String district;
+    private String city;
+    
+    @Column(precision = 12, scale = 2)
+    private BigDecimal minPrice;
+    
+    @Column(precision = 12, scale = 2)
+    private BigDecimal maxPrice;
+    
+    private Integer minBedrooms;
+    private String keyword;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,36 @@
+package com.realestate.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A newly approved listing that matched one of a user's saved searches. Written in
+ * batches by SavedSearchService; property_id has no foreign key so alerts outlive the listing.
+ */
+@Entity
+@Table(name = "saved_search_alerts",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"saved_search_id", "property_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Long savedSearchId;
+    
+    @Column(nullable = false)
+    private Long propertyId;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.realestate.monitoring;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every DataSource bean in a datasource-proxy so statements and result sets
+ * can be observed without touching Hibernate or the repositories.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    @Autowired
+    private ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new QueryStatsListener())
+                    .listener(new SlowQueryListener(dataSource, slowQueryLog))
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,106 @@
+package com.realestate.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC work done on behalf of one HTTP request: statements executed, rows read and time
+ * spent in the driver. Bound to the request thread by {@link QueryStatsFilter} and fed by
+ * {@link QueryStatsListener}; statements run outside a request are not tracked. Work the
+ * request hands to other threads is counted too when wrapped with {@link #propagate}.
+ */
+public class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    // Collapse IN lists and literals so "the same query with different arguments" shares a shape
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\((\\s*\\?\\s*,)+\\s*\\?\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+    private final Map<String, Integer> shapes = new ConcurrentHashMap<>();
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /** Wraps a task so that it runs with the calling thread's stats bound, if there are any. */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        QueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            QueryStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void recordStatement(String sql) {
+        statements.incrementAndGet();
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    void recordTime(long elapsedNanos) {
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    void recordRow() {
+        rows.incrementAndGet();
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getNanos() {
+        return nanos.get();
+    }
+
+    /** The most frequently repeated statement shape, or null if nothing ran. */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return NUMBER.matcher(shape).replaceAll("?");
+    }
+}
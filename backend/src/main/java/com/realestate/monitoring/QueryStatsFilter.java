@@ -0,0 +1,90 @@
+package com.realestate.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks JDBC statements, rows and database time per HTTP request and publishes them as
+ * db.request.* metrics tagged by URI pattern. Requests that run the same statement shape
+ * more than the repeat threshold are logged as likely N+1s.
+ *
+ * With app.query-stats.headers=true (the "local" profile) the numbers are also returned as
+ * X-Query-* response headers. That buffers the response body, so it is off in production.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.query-stats.headers:false}")
+    private boolean headers;
+
+    @Value("${app.query-stats.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Streaming responses can't be buffered to add headers after the fact
+        boolean withHeaders = headers && !MediaType.TEXT_EVENT_STREAM_VALUE.equals(request.getHeader("Accept"));
+        ContentCachingResponseWrapper wrapper = withHeaders ? new ContentCachingResponseWrapper(response) : null;
+
+        QueryStats stats = QueryStats.begin();
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            QueryStats.end();
+            record(request, stats);
+            if (wrapper != null) {
+                if (!response.isCommitted()) {
+                    response.setHeader("X-Query-Count", String.valueOf(stats.getStatements()));
+                    response.setHeader("X-Query-Rows", String.valueOf(stats.getRows()));
+                    response.setHeader("X-Query-Time-Ms", String.format("%.2f", stats.getNanos() / 1e6));
+                    Map.Entry<String, Integer> top = stats.mostRepeated();
+                    response.setHeader("X-Query-Max-Repeat", String.valueOf(top == null ? 0 : top.getValue()));
+                }
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        meterRegistry.summary("db.request.statements", tags).record(stats.getStatements());
+        meterRegistry.summary("db.request.rows", tags).record(stats.getRows());
+        meterRegistry.timer("db.request.time", tags).record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        if (top != null && top.getValue() > repeatThreshold) {
+            meterRegistry.counter("db.request.repeated_statements", tags).increment();
+            logger.warn("Possible N+1 on {} {}: statement ran {} times ({} statements total): {}",
+                    request.getMethod(), uri, top.getValue(), stats.getStatements(), top.getKey());
+        }
+    }
+}
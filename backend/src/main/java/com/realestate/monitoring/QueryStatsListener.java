@@ -0,0 +1,45 @@
+package com.realestate.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that feeds the current request's {@link QueryStats}.
+ * Time covers statement execution only; fetching rows is counted but not timed.
+ */
+public class QueryStatsListener extends JdbcLifecycleEventListenerAdapter {
+
+    private static final String START = "queryStats.start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (QueryStats.current() != null) {
+            execInfo.addCustomValue(START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (stats == null || start == null) {
+            return;
+        }
+        stats.recordTime(System.nanoTime() - start);
+        for (QueryInfo queryInfo : queryInfoList) {
+            stats.recordStatement(queryInfo.getQuery());
+        }
+    }
+
+    @Override
+    public void afterNext(MethodExecutionContext executionContext) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null && Boolean.TRUE.equals(executionContext.getResult())) {
+            stats.recordRow();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.realestate.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which PropertyRepository method is running on the current thread so that
+ * slow statements can be attributed to it (e.g. PropertyRepository.filterProperties).
+ */
+@Aspect
+@Component
+public class RepositoryCallAspect {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    @Around("execution(* com.realestate.repository.PropertyRepository.*(..))")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set("PropertyRepository." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.realestate.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hands statements that ran longer than the slow query threshold to {@link SlowQueryLog},
+ * along with the unproxied DataSource so EXPLAIN doesn't feed back into this listener.
+ */
+public class SlowQueryListener extends JdbcLifecycleEventListenerAdapter {
+
+    private final DataSource target;
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+    private volatile SlowQueryLog slowQueryLog;
+
+    public SlowQueryListener(DataSource target, ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        this.target = target;
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SlowQueryLog log = slowQueryLog();
+        if (log == null || execInfo.getElapsedTime() < log.getThresholdMs() || queryInfoList.isEmpty()) {
+            return;
+        }
+        // For batches only the first statement and parameter set is kept; they share a shape
+        QueryInfo queryInfo = queryInfoList.get(0);
+        List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                ? List.of() : queryInfo.getParametersList().get(0);
+        log.record(target, queryInfo.getQuery(), parameters, execInfo.getElapsedTime(), RepositoryCallAspect.current());
+    }
+
+    // Resolved lazily: the DataSource is proxied long before the rest of the context exists
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.getIfAvailable();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+}
@@ -0,0 +1,227 @@
+package com.realestate.monitoring;
+
+import com.realestate.dto.SlowQueryDTO;
+import com.realestate.dto.SlowQueryOffenderDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements slower than app.slow-query.threshold-ms, kept in a ring buffer of recent
+ * samples plus per-shape totals for the admin "top offenders" view. Each sample is also
+ * written to the "slow-query" logger, which logback-spring.xml sends to a rolling file.
+ *
+ * SELECTs get their plan captured with EXPLAIN (ANALYZE, BUFFERS) on PostgreSQL (EXPLAIN
+ * ANALYZE elsewhere) on a background thread, at most once per shape per explain interval.
+ * The query runs again for that, inside a read-only transaction that is rolled back.
+ *
+ * Bound values are kept, and plans captured, only for statements issued by PropertyRepository.
+ * Everything else on the datasource (users' emails and password hashes among it) is logged
+ * with its parameters masked as "?" and never explained, since a plan can echo them too.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("slow-query");
+
+    // Bounded so that shapes built from unparameterized SQL can't grow it forever
+    private static final int MAX_SHAPES = 1000;
+
+    @Value("${app.slow-query.threshold-ms:200}")
+    private long thresholdMs;
+
+    @Value("${app.slow-query.buffer-size:200}")
+    private int bufferSize;
+
+    @Value("${app.slow-query.explain:true}")
+    private boolean explain;
+
+    @Value("${app.slow-query.explain-interval-ms:300000}")
+    private long explainIntervalMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Deque<SlowQueryDTO> recent = new ArrayDeque<>();
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor explainExecutor;
+
+    @PostConstruct
+    public void init() {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("slow-query-explain").factory()
+                : Thread.ofPlatform().name("slow-query-explain").daemon().factory();
+        // One explain at a time; when the database is struggling, skipping plans beats piling on
+        explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(20), threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    void record(DataSource target, String sql, List<ParameterSetOperation> parameters, long elapsedMs, String source) {
+        List<ParameterSetOperation> ordered = new ArrayList<>(parameters);
+        ordered.sort(Comparator.comparingInt(op -> op.getArgs()[0] instanceof Integer index ? index : 0));
+
+        boolean listingQuery = source != null;
+
+        SlowQueryDTO sample = new SlowQueryDTO();
+        sample.setSql(sql);
+        sample.setParameters(listingQuery ? describe(ordered) : Collections.nCopies(ordered.size(), "?"));
+        sample.setElapsedMs(elapsedMs);
+        sample.setSource(source != null ? source : "other");
+        sample.setExecutedAt(LocalDateTime.now());
+
+        synchronized (recent) {
+            if (recent.size() == bufferSize) {
+                recent.removeFirst();
+            }
+            recent.addLast(sample);
+        }
+
+        String shape = QueryStats.shape(sql);
+        Offender offender = offenders.get(shape);
+        if (offender == null && offenders.size() < MAX_SHAPES) {
+            offender = offenders.computeIfAbsent(shape, Offender::new);
+        }
+        boolean explainNow = false;
+        if (offender != null) {
+            explainNow = offender.add(sample, explainIntervalMs);
+        }
+
+        slowQueryLogger.warn("{} ms [{}] {} {}", elapsedMs, sample.getSource(), sql, sample.getParameters());
+
+        if (explain && explainNow && listingQuery && sql.trim().regionMatches(true, 0, "select", 0, 6)) {
+            explainExecutor.execute(() -> capturePlan(target, sql, ordered, sample));
+        }
+    }
+
+    private void capturePlan(DataSource target, String sql, List<ParameterSetOperation> parameters, SlowQueryDTO sample) {
+        try (Connection connection = target.getConnection()) {
+            boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            String prefix = postgres ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ANALYZE ";
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(prefix + sql)) {
+                for (ParameterSetOperation op : parameters) {
+                    Object[] args = op.getArgs();
+                    int index = (Integer) args[0];
+                    if (ParameterSetOperation.isSetNullParameterOperation(op)) {
+                        statement.setNull(index, (Integer) args[1]);
+                    } else {
+                        statement.setObject(index, args[1]);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                sample.setPlan(plan.toString());
+                slowQueryLogger.warn("Plan for [{}] {}:\n{}", sample.getSource(), sql, plan);
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not capture plan for slow query: {}", e.getMessage());
+        }
+    }
+
+    public List<SlowQueryDTO> getRecent() {
+        synchronized (recent) {
+            List<SlowQueryDTO> samples = new ArrayList<>(recent);
+            Collections.reverse(samples);
+            return samples;
+        }
+    }
+
+    public List<SlowQueryOffenderDTO> getTopOffenders(int limit) {
+        return offenders.values().stream()
+                .map(Offender::toDTO)
+                .sorted(Comparator.comparingLong(SlowQueryOffenderDTO::getTotalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private static List<String> describe(List<ParameterSetOperation> parameters) {
+        List<String> values = new ArrayList<>(parameters.size());
+        for (ParameterSetOperation op : parameters) {
+            values.add(ParameterSetOperation.isSetNullParameterOperation(op) ? "null" : String.valueOf(op.getArgs()[1]));
+        }
+        return values;
+    }
+
+    private static final class Offender {
+        private final String shape;
+        private long count;
+        private long totalMs;
+        private SlowQueryDTO slowest;
+        private long lastExplainedAt;
+
+        Offender(String shape) {
+            this.shape = shape;
+        }
+
+        /** Returns true when this sample should have its plan captured. */
+        synchronized boolean add(SlowQueryDTO sample, long explainIntervalMs) {
+            count++;
+            totalMs += sample.getElapsedMs();
+            if (slowest == null || sample.getElapsedMs() >= slowest.getElapsedMs()) {
+                slowest = sample;
+            }
+            long now = System.currentTimeMillis();
+            if (lastExplainedAt == 0 || now - lastExplainedAt >= explainIntervalMs) {
+                lastExplainedAt = now;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized SlowQueryOffenderDTO toDTO() {
+            SlowQueryOffenderDTO dto = new SlowQueryOffenderDTO();
+            dto.setShape(shape);
+            dto.setSource(slowest.getSource());
+            dto.setCount(count);
+            dto.setTotalMs(totalMs);
+            dto.setMaxMs(slowest.getElapsedMs());
+            dto.setSlowest(slowest);
+            return dto;
+        }
+    }
+}
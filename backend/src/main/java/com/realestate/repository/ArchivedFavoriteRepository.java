@@ -0,0 +1,19 @@
+package com.realestate.repository;
+
+import com.realestate.model.ArchivedFavorite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedFavoriteRepository extends JpaRepository<ArchivedFavorite, Long> {
+    
+    @Modifying
+    @Query("INSERT INTO ArchivedFavorite (id, userId, propertyId, createdAt) " +
+           "SELECT f.id, f.user.id, f.property.id, f.createdAt FROM Favorite f WHERE f.property.id IN :propertyIds")
+    int copyFromFavorites(@Param("propertyIds") List<Long> propertyIds);
+}
@@ -0,0 +1,24 @@
+package com.realestate.repository;
+
+import com.realestate.model.ArchivedPropertyImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedPropertyImageRepository extends JpaRepository<ArchivedPropertyImage, Long> {
+    
+    List<ArchivedPropertyImage> findByPropertyIdOrderById(Long propertyId);
+    
+    @Query("SELECT i.imageUrl FROM ArchivedPropertyImage i WHERE i.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
+    
+    @Modifying
+    @Query("INSERT INTO ArchivedPropertyImage (id, imageUrl, propertyId) " +
+           "SELECT i.id, i.imageUrl, i.property.id FROM PropertyImage i WHERE i.property.id IN :propertyIds")
+    int copyFromPropertyImages(@Param("propertyIds") List<Long> propertyIds);
+}
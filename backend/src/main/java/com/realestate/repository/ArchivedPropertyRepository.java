@@ -0,0 +1,29 @@
+package com.realestate.repository;
+
+import com.realestate.model.ArchivedProperty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedPropertyRepository extends JpaRepository<ArchivedProperty, Long> {
+    
+    @Query("SELECT p.updatedAt FROM ArchivedProperty p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    // Copies the listings in one statement; the caller deletes the originals in the same transaction
+    @Modifying
+    @Query("INSERT INTO ArchivedProperty (id, title, description, type, listingType, price, address, city, district, " +
+           "bedrooms, bathrooms, landSize, floorSize, parkingSpaces, ownerId, status, featured, approvedAt, " +
+           "createdAt, updatedAt, archivedAt) " +
+           "SELECT p.id, p.title, p.description, p.type, p.listingType, p.price, p.address, p.city, p.district, " +
+           "p.bedrooms, p.bathrooms, p.landSize, p.floorSize, p.parkingSpaces, p.owner.id, p.status, p.featured, " +
+           "p.approvedAt, p.createdAt, p.updatedAt, :archivedAt FROM Property p WHERE p.id IN :ids")
+    int copyFromProperties(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -3,9 +3,14 @@ package com.realestate.repository;
 import com.realestate.model.Favorite;
 import com.realestate.model.Property;
 import com.realestate.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +21,32 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUserAndProperty(User user, Property property);
     Boolean existsByUserAndProperty(User user, Property property);
     void deleteByUserAndProperty(User user, Property property);
+    
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.property.id = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+    
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.property.id IN :propertyIds")
+    int deleteByPropertyIdIn(@Param("propertyIds") List<Long> propertyIds);
+    
+    @Query("SELECT DISTINCT f.user.id FROM Favorite f WHERE f.property.id IN :propertyIds")
+    List<Long> findUserIdsByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+    
+    @Query("SELECT f.property.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findPropertyIdsByUserId(@Param("userId") Long userId);
+    
+    // (user, listing) pairs for the recommendation model, in keyset pages
+    @Query("SELECT f.id AS id, f.user.id AS userId, f.property.id AS propertyId FROM Favorite f WHERE f.id > :afterId ORDER BY f.id")
+    List<FavoritePair> findPairsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT f.id AS id, f.user.id AS userId, f.property.id AS propertyId FROM Favorite f WHERE f.user.id IN :userIds ORDER BY f.id")
+    List<FavoritePair> findPairsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
+    interface FavoritePair {
+        Long getId();
+        Long getUserId();
+        Long getPropertyId();
+    }
 }
 
@@ -0,0 +1,25 @@
+package com.realestate.repository;
+
+import com.realestate.model.PropertyImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PropertyImageRepository extends JpaRepository<PropertyImage, Long> {
+    
+    @Query("SELECT i.imageUrl FROM PropertyImage i WHERE i.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
+    
+    @Modifying
+    @Query("DELETE FROM PropertyImage i WHERE i.property.id = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+    
+    @Modifying
+    @Query("DELETE FROM PropertyImage i WHERE i.property.id IN :propertyIds")
+    int deleteByPropertyIdIn(@Param("propertyIds") List<Long> propertyIds);
+}
@@ -2,15 +2,22 @@ package com.realestate.repository;
 
 import com.realestate.model.Property;
 import com.realestate.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
@@ -21,7 +28,7 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     
     List<Property> findByOwnerAndStatus(User owner, Property.PropertyStatus status);
     
-    @Query("SELECT p FROM Property p WHERE " +
+    String FILTER_CONDITIONS =
            "(:type IS NULL OR p.type = :type) AND " +
            "(:listingType IS NULL OR p.listingType = :listingType) AND " +
            "(:district IS NULL OR p.district = :district) AND " +
@@ -29,7 +36,17 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
            "(:minBedrooms IS NULL OR p.bedrooms >= :minBedrooms) AND " +
-           "(:status IS NULL OR p.status = :status)")
+           "(:status IS NULL OR p.status = :status)";
+    
+    // Card columns only (no description, address or owner) plus the first image
+    String SUMMARY_COLUMNS =
+           "p.id AS id, p.title AS title, p.type AS type, p.listingType AS listingType, p.price AS price, " +
+           "p.city AS city, p.district AS district, p.bedrooms AS bedrooms, p.bathrooms AS bathrooms, " +
+           "p.floorSize AS floorSize, p.landSize AS landSize, p.featured AS featured, " +
+           "(SELECT i.imageUrl FROM PropertyImage i WHERE i.id = " +
+           "(SELECT MIN(first.id) FROM PropertyImage first WHERE first.property = p)) AS thumbnailUrl";
+    
+    @Query("SELECT p FROM Property p WHERE " + FILTER_CONDITIONS)
     Page<Property> findByFilters(
         @Param("type") Property.PropertyType type,
         @Param("listingType") Property.ListingType listingType,
@@ -52,8 +69,127 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
         Pageable pageable
     );
     
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Property p WHERE p.status = :status",
+           countQuery = "SELECT COUNT(p) FROM Property p WHERE p.status = :status")
+    Page<PropertySummary> findSummariesByStatus(@Param("status") Property.PropertyStatus status, Pageable pageable);
+    
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Property p WHERE " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(p) FROM Property p WHERE " + FILTER_CONDITIONS)
+    Page<PropertySummary> findSummariesByFilters(
+        @Param("type") Property.PropertyType type,
+        @Param("listingType") Property.ListingType listingType,
+        @Param("district") String district,
+        @Param("city") String city,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("minBedrooms") Integer minBedrooms,
+        @Param("status") Property.PropertyStatus status,
+        Pageable pageable
+    );
+    
+    // Sliced by the pageable without a count query
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Property p WHERE p.status = :status")
+    List<PropertySummary> findSummaryList(@Param("status") Property.PropertyStatus status, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Property p WHERE p.featured = true AND p.status = :status")
+    List<PropertySummary> findFeaturedSummaries(@Param("status") Property.PropertyStatus status);
+    
+    List<Property> findByIdInAndStatus(Collection<Long> ids, Property.PropertyStatus status);
+    
+    @Query("SELECT p.id FROM Property p WHERE p.id IN :ids AND p.status = :status")
+    Set<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Property.PropertyStatus status);
+    
     List<Property> findTop10ByStatusOrderByCreatedAtDesc(Property.PropertyStatus status);
     
     List<Property> findByFeaturedTrueAndStatus(Property.PropertyStatus status);
+    
+    @Query("SELECT p.updatedAt FROM Property p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdated FROM Property p WHERE p.status = :status")
+    ListingVersion findListingVersion(@Param("status") Property.PropertyStatus status);
+    
+    @Query("SELECT p.owner.id FROM Property p WHERE p.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("DELETE FROM Property p WHERE p.id = :id")
+    int deletePropertyById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("DELETE FROM Property p WHERE p.id IN :ids")
+    int deletePropertiesByIdIn(@Param("ids") List<Long> ids);
+    
+    // Closed listings due for archiving, oldest id first. Locked (FOR UPDATE) until the archiving
+    // transaction ends: a listing reopened concurrently is either skipped here (the predicate is
+    // re-checked on the new row version) or waits and then finds it gone, never half-archived.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Property p WHERE p.status IN :statuses AND p.updatedAt < :cutoff ORDER BY p.id")
+    List<Long> findArchivableIds(@Param("statuses") List<Property.PropertyStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Just the fields the typeahead and fuzzy search indexes are built from, in keyset pages
+    @Query("SELECT p.id AS id, p.title AS title, p.address AS address, p.city AS city, p.district AS district FROM Property p " +
+           "WHERE p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<SuggestionSource> findSuggestionSources(@Param("status") Property.PropertyStatus status,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p.id AS id, p.title AS title, p.address AS address, p.city AS city, p.district AS district FROM Property p " +
+           "WHERE p.status = :status AND p.id IN :ids")
+    List<SuggestionSource> findSuggestionSourcesByIdIn(@Param("status") Property.PropertyStatus status,
+                                                       @Param("ids") Collection<Long> ids);
+    
+    // The features the similar-listings index compares, in keyset pages
+    @Query("SELECT p.id AS id, p.listingType AS listingType, p.type AS type, p.district AS district, p.price AS price, " +
+           "p.bedrooms AS bedrooms, p.bathrooms AS bathrooms, p.floorSize AS floorSize, p.landSize AS landSize " +
+           "FROM Property p WHERE p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<SimilaritySource> findSimilaritySources(@Param("status") Property.PropertyStatus status,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p.id AS id, p.listingType AS listingType, p.type AS type, p.district AS district, p.price AS price, " +
+           "p.bedrooms AS bedrooms, p.bathrooms AS bathrooms, p.floorSize AS floorSize, p.landSize AS landSize " +
+           "FROM Property p WHERE p.status = :status AND p.id IN :ids")
+    List<SimilaritySource> findSimilaritySourcesByIdIn(@Param("status") Property.PropertyStatus status,
+                                                       @Param("ids") Collection<Long> ids);
+    
+    interface ListingVersion {
+        long getCount();
+        LocalDateTime getLastUpdated();
+    }
+    
+    interface PropertySummary {
+        Long getId();
+        String getTitle();
+        Property.PropertyType getType();
+        Property.ListingType getListingType();
+        BigDecimal getPrice();
+        String getCity();
+        String getDistrict();
+        Integer getBedrooms();
+        Integer getBathrooms();
+        BigDecimal getFloorSize();
+        BigDecimal getLandSize();
+        Boolean getFeatured();
+        String getThumbnailUrl();
+    }
+    
+    interface SuggestionSource {
+        Long getId();
+        String getTitle();
+        String getAddress();
+        String getCity();
+        String getDistrict();
+    }
+    
+    interface SimilaritySource {
+        Long getId();
+        Property.ListingType getListingType();
+        Property.PropertyType getType();
+        String getDistrict();
+        BigDecimal getPrice();
+        Integer getBedrooms();
+        Integer getBathrooms();
+        BigDecimal getFloorSize();
+        BigDecimal getLandSize();
+    }
 }
-
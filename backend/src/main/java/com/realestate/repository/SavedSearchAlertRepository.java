@@ -0,0 +1,14 @@
+package com.realestate.repository;
+
+import com.realestate.model.SavedSearchAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchAlertRepository extends JpaRepository<SavedSearchAlert, Long> {
+    
+    List<SavedSearchAlert> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.realestate.repository;
+
+import com.realestate.model.SavedSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+    
+    long countByUserId(Long userId);
+    
+    // Keyset pages for loading the matcher without holding every entity at once
+    @Query("SELECT s FROM SavedSearch s JOIN FETCH s.user WHERE s.id > :afterId ORDER BY s.id")
+    List<SavedSearch> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -2,8 +2,11 @@ package com.realestate.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -22,6 +25,9 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         
@@ -47,6 +53,13 @@ public class JwtUtils {
     }
     
     public boolean validateJwtToken(String authToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean valid = verify(authToken);
+        sample.stop(meterRegistry.timer("jwt.validate", "result", valid ? "valid" : "invalid"));
+        return valid;
+    }
+    
+    private boolean verify(String authToken) {
         try {
             SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
             Jwts.parser()
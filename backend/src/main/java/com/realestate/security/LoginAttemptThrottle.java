@@ -0,0 +1,96 @@
+package com.realestate.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per username and per client IP in memory. Once either passes its
+ * limit, further attempts are refused before any password hashing happens, until the
+ * window has passed without another failure. A successful login clears the username.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.login-throttle.max-failures-per-username:5}")
+    private int maxFailuresPerUsername;
+
+    @Value("${app.login-throttle.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${app.login-throttle.window-minutes:15}")
+    private long windowMinutes;
+
+    @Value("${app.login-throttle.max-entries:100000}")
+    private long maxEntries;
+
+    private Cache<String, AtomicInteger> usernameFailures;
+    private Cache<String, AtomicInteger> ipFailures;
+
+    @PostConstruct
+    public void init() {
+        usernameFailures = newCache();
+        ipFailures = newCache();
+    }
+
+    /** Seconds until the caller may try again, or 0 if the attempt may go ahead. */
+    public long blockedForSeconds(String username, String ip) {
+        long blocked = Math.max(
+                blockedFor(usernameFailures, normalize(username), maxFailuresPerUsername),
+                blockedFor(ipFailures, ip, maxFailuresPerIp));
+        if (blocked > 0) {
+            meterRegistry.counter("auth.login.throttled").increment();
+        }
+        return blocked;
+    }
+
+    public void recordFailure(String username, String ip) {
+        increment(usernameFailures, normalize(username));
+        increment(ipFailures, ip);
+        meterRegistry.counter("auth.login.failures").increment();
+    }
+
+    public void recordSuccess(String username) {
+        usernameFailures.invalidate(normalize(username));
+    }
+
+    private long blockedFor(Cache<String, AtomicInteger> failures, String key, int limit) {
+        AtomicInteger count = failures.getIfPresent(key);
+        if (count == null || count.get() < limit) {
+            return 0;
+        }
+        Duration age = failures.policy().expireAfterWrite()
+                .flatMap(policy -> policy.ageOf(key))
+                .orElse(Duration.ZERO);
+        return Math.max(1, TimeUnit.MINUTES.toSeconds(windowMinutes) - age.toSeconds());
+    }
+
+    private void increment(Cache<String, AtomicInteger> failures, String key) {
+        // put() rather than an in-place increment so every failure restarts the window
+        AtomicInteger count = failures.get(key, k -> new AtomicInteger());
+        count.incrementAndGet();
+        failures.put(key, count);
+    }
+
+    private Cache<String, AtomicInteger> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(windowMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,137 @@
+package com.realestate.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.payload.response.MessageResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client rate limiting for the expensive public read endpoints. Each route in
+ * app.rate-limit.routes ("path:requestsPerMinute:burst") gets a token bucket per client IP,
+ * or per username once AuthTokenFilter has authenticated the request (with
+ * app.rate-limit.user-multiplier times the allowance). Over the limit the client gets 429
+ * with Retry-After and the request never reaches the database.
+ *
+ * Buckets are kept as GCRA "theoretical arrival times" in an AtomicLong updated by CAS, so
+ * the hot path takes no locks; the map is a bounded Caffeine cache that drops idle buckets.
+ *
+ * Metrics: rate_limit.rejected{route, client} counter and the rate_limit.buckets gauge.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.routes:/api/properties/search:60:20,/api/properties/filter:60:20}")
+    private List<String> routeSpecs;
+
+    @Value("${app.rate-limit.user-multiplier:2}")
+    private int userMultiplier;
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<String, Limit> limits;
+    private Cache<String, AtomicLong> buckets;
+
+    @PostConstruct
+    public void init() {
+        limits = new HashMap<>();
+        long refillNanos = TimeUnit.MINUTES.toNanos(1);
+        for (String spec : routeSpecs) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Bad app.rate-limit.routes entry '" + spec + "', expected path:requestsPerMinute:burst");
+            }
+            Limit limit = new Limit(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            limits.put(parts[0], limit);
+            refillNanos = Math.max(refillNanos, TimeUnit.MINUTES.toNanos(limit.burst() + 1) / limit.perMinute());
+        }
+        // A bucket idle for longer than its refill time is full again, so dropping it loses nothing
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(refillNanos, TimeUnit.NANOSECONDS)
+                .build();
+        meterRegistry.gauge("rate_limit.buckets", buckets, Cache::estimatedSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !limits.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String route = request.getServletPath();
+        Limit limit = limits.get(route);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean user = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        String client = user ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+        int multiplier = user ? userMultiplier : 1;
+
+        AtomicLong bucket = buckets.get(route + '|' + client, k -> new AtomicLong(System.nanoTime()));
+        long waitNanos = limit.acquire(bucket, multiplier, System.nanoTime());
+        if (waitNanos > 0) {
+            meterRegistry.counter("rate_limit.rejected", "route", route, "client", user ? "user" : "anonymous").increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            mapper.writeValue(response.getOutputStream(), new MessageResponse("Too many requests, please retry later"));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private record Limit(int perMinute, int burst) {
+
+        /** Takes a token from the bucket; returns 0 on success, otherwise nanos until one is free. */
+        long acquire(AtomicLong theoreticalArrival, int multiplier, long now) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / ((long) perMinute * multiplier);
+            long tolerance = interval * burst * multiplier;
+            while (true) {
+                long current = theoreticalArrival.get();
+                // A bucket that has been idle long enough is full again, so it restarts from now
+                long base = current - now < 0 ? now : current;
+                long next = base + interval;
+                long wait = next - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
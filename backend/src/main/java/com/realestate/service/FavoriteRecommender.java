@@ -0,0 +1,416 @@
+package com.realestate.service;
+
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.FavoriteRepository.FavoritePair;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Item-to-item "recommended for you" model over the favorites table.
+ *
+ * Two listings co-occur when the same user has favorited both. Each listing keeps sparse
+ * co-occurrence counts in a primitive long-to-int map, plus the number of users who favorited
+ * it; for serving, those are pruned to its app.recommend.neighbors best neighbours by cosine
+ * (co-occurrences / sqrt(popularity of both)). A user's recommendations are the summed
+ * neighbour scores of their favorites, minus the listings they already have, so a query reads
+ * nothing but memory. Only a user's latest app.recommend.max-favorites-per-user favorites form
+ * pairs, the same ones a query scores from, which keeps one heavy user from making the counting
+ * quadratic.
+ *
+ * The model is built at startup on the fork/join pool: listings are split into shards and each
+ * shard is counted, then ranked, by its own task without locks or merging. Adding or removing a
+ * favorite, here or (via the cache invalidation bus) on another instance, queues its user;
+ * every app.recommend.refresh-ms the queued users' favorites are re-read, their old pairs
+ * subtracted and the new ones added, and the neighbours of the listings involved re-ranked.
+ */
+@Component
+public class FavoriteRecommender extends IncrementalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FavoriteRecommender.class);
+
+    private static final int REFRESH_BATCH = 500;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.recommend.neighbors:50}")
+    private int neighbors;
+
+    @Value("${app.recommend.max-favorites-per-user:200}")
+    private int maxFavoritesPerUser;
+
+    @Value("${app.recommend.load-page-size:10000}")
+    private int loadPageSize;
+
+    private volatile Model model = new Model();
+
+    private Timer queryTimer;
+
+    public FavoriteRecommender() {
+        super(EntityChangeEvent.Type.FAVORITES);
+    }
+
+    @PostConstruct
+    public void init() {
+        queryTimer = meterRegistry.timer("recommend.query");
+        meterRegistry.gauge("recommend.listings", this, recommender -> recommender.model.items.size());
+    }
+
+    /** Listing ids for the user, best first; empty when they have no favorites the model can use. */
+    public List<Long> recommend(long userId, int limit) {
+        return queryTimer.record(() -> {
+            Model current = model;
+            current.lock.readLock().lock();
+            try {
+                long[] favorites = current.favoritesByUser.get(userId);
+                if (favorites == null) {
+                    return List.of();
+                }
+                Set<Long> owned = new HashSet<>();
+                for (long favorite : favorites) {
+                    owned.add(favorite);
+                }
+                // The most recent favorites say the most about what they are looking for now
+                Map<Long, Float> scores = new HashMap<>();
+                for (int f = favorites.length - 1; f >= windowStart(favorites); f--) {
+                    Item item = current.items.get(favorites[f]);
+                    if (item == null) {
+                        continue;
+                    }
+                    for (int n = 0; n < item.neighbors.length; n++) {
+                        if (!owned.contains(item.neighbors[n])) {
+                            scores.merge(item.neighbors[n], item.scores[n], Float::sum);
+                        }
+                    }
+                }
+                return scores.entrySet().stream()
+                        .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed()))
+                        .limit(limit)
+                        .map(Map.Entry::getKey)
+                        .toList();
+            } finally {
+                current.lock.readLock().unlock();
+            }
+        });
+    }
+
+    public void userChanged(long userId) {
+        changed(userId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.recommend.refresh-ms:1000}")
+    public void refresh() {
+        super.refresh();
+    }
+
+    @Override
+    protected void apply(List<Long> users) {
+        Model current = model;
+        for (int from = 0; from < users.size(); from += REFRESH_BATCH) {
+            List<Long> batch = users.subList(from, Math.min(from + REFRESH_BATCH, users.size()));
+            Map<Long, LongList> favorites = new HashMap<>();
+            for (FavoritePair pair : favoriteRepository.findPairsByUserIdIn(batch)) {
+                favorites.computeIfAbsent(pair.getUserId(), u -> new LongList()).add(pair.getPropertyId());
+            }
+            current.lock.writeLock().lock();
+            try {
+                Set<Item> touched = new HashSet<>();
+                for (Long userId : batch) {
+                    LongList list = favorites.get(userId);
+                    current.setFavorites(userId, list == null ? new long[0] : list.toArray(), touched);
+                }
+                for (Item item : touched) {
+                    if (item.users <= 0) {
+                        current.items.remove(item.id);
+                    } else {
+                        current.rankNeighbors(item);
+                    }
+                }
+            } finally {
+                current.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void rebuild() {
+        long start = System.nanoTime();
+        Model fresh = new Model();
+        Map<Long, LongList> byUser = new HashMap<>();
+        long afterId = 0;
+        List<FavoritePair> page;
+        do {
+            page = favoriteRepository.findPairsAfter(afterId, PageRequest.of(0, loadPageSize));
+            for (FavoritePair pair : page) {
+                byUser.computeIfAbsent(pair.getUserId(), u -> new LongList()).add(pair.getPropertyId());
+                afterId = pair.getId();
+            }
+        } while (page.size() == loadPageSize);
+        byUser.forEach((userId, list) -> fresh.favoritesByUser.put(userId, list.toArray()));
+        long[][] windows = fresh.favoritesByUser.values().stream()
+                .map(favorites -> Arrays.copyOfRange(favorites, windowStart(favorites), favorites.length))
+                .toArray(long[][]::new);
+
+        // Each shard owns the listings hashing to it, so the tasks never share a map
+        int shards = ForkJoinPool.getCommonPoolParallelism() * 4;
+        Map<Long, Item>[] shardItems = new Map[shards];
+        ForkJoinPool.commonPool().invoke(new ShardTask(0, shards, shard -> {
+            Map<Long, Item> items = new HashMap<>();
+            for (long[] window : windows) {
+                for (int a = 0; a < window.length; a++) {
+                    if (shardOf(window[a], shards) != shard) {
+                        continue;
+                    }
+                    Item item = items.computeIfAbsent(window[a], Item::new);
+                    item.users++;
+                    for (int b = 0; b < window.length; b++) {
+                        if (b != a) {
+                            item.counts.add(window[b], 1);
+                        }
+                    }
+                }
+            }
+            shardItems[shard] = items;
+        }));
+        for (Map<Long, Item> items : shardItems) {
+            fresh.items.putAll(items);
+        }
+        // Ranking needs every listing's popularity, so it is a second pass over the complete map
+        ForkJoinPool.commonPool().invoke(new ShardTask(0, shards, shard -> shardItems[shard].values().forEach(fresh::rankNeighbors)));
+        model = fresh;
+        logger.info("Built recommendations for {} listings from {} users' favorites in {} ms", fresh.items.size(),
+                fresh.favoritesByUser.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // First of the user's latest maxFavoritesPerUser favorites (they are kept oldest first)
+    private int windowStart(long[] favorites) {
+        return Math.max(0, favorites.length - maxFavoritesPerUser);
+    }
+
+    private static int shardOf(long propertyId, int shards) {
+        return Math.floorMod(Long.hashCode(propertyId), shards);
+    }
+
+    private final class Model {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // In the order they were favorited
+        private final Map<Long, long[]> favoritesByUser = new HashMap<>();
+        private final Map<Long, Item> items = new HashMap<>();
+
+        void setFavorites(long userId, long[] favorites, Set<Item> touched) {
+            long[] previous = favorites.length == 0 ? favoritesByUser.remove(userId) : favoritesByUser.put(userId, favorites);
+            if (previous != null) {
+                addPairs(previous, -1, touched);
+            }
+            addPairs(favorites, 1, touched);
+        }
+
+        private void addPairs(long[] favorites, int delta, Set<Item> touched) {
+            int start = windowStart(favorites);
+            for (int a = start; a < favorites.length; a++) {
+                Item item = delta > 0 ? items.computeIfAbsent(favorites[a], Item::new) : items.get(favorites[a]);
+                if (item == null) {
+                    continue;
+                }
+                item.users += delta;
+                for (int b = start; b < favorites.length; b++) {
+                    if (b != a) {
+                        item.counts.add(favorites[b], delta);
+                    }
+                }
+                touched.add(item);
+            }
+        }
+
+        /** Keeps the best neighbours of the item by cosine similarity, best first. */
+        void rankNeighbors(Item item) {
+            record Neighbor(long id, float score) {}
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(neighbors + 1, Comparator.comparingDouble(Neighbor::score));
+            item.counts.forEach((neighborId, count) -> {
+                Item neighbor = items.get(neighborId);
+                if (neighbor == null || neighbor.users <= 0) {
+                    return;
+                }
+                best.add(new Neighbor(neighborId, (float) (count / Math.sqrt((double) item.users * neighbor.users))));
+                if (best.size() > neighbors) {
+                    best.poll();
+                }
+            });
+            long[] ids = new long[best.size()];
+            float[] scores = new float[best.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                Neighbor neighbor = best.poll();
+                ids[i] = neighbor.id();
+                scores[i] = neighbor.score();
+            }
+            // Readers pick up both arrays together under the read lock
+            item.neighbors = ids;
+            item.scores = scores;
+        }
+    }
+
+    private static final class Item {
+        private final long id;
+        private final LongIntMap counts = new LongIntMap();
+        private int users;
+        private long[] neighbors = new long[0];
+        private float[] scores = new float[0];
+
+        Item(long id) {
+            this.id = id;
+        }
+    }
+
+    /** Runs work for each shard in [from, to), splitting the range across the fork/join pool. */
+    private static final class ShardTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer work;
+
+        ShardTask(int from, int to, IntConsumer work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ShardTask(from, middle, work), new ShardTask(middle, to, work));
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Open-addressing long-to-int map with linear probing, about a third of the size of a
+     * HashMap<Long, Integer>. Key 0 marks an empty slot (listing ids start at 1); an entry
+     * that drops to zero is removed by shifting its probe chain back.
+     */
+    private static final class LongIntMap {
+        private long[] keys = new long[8];
+        private int[] values = new int[8];
+        private int size;
+
+        interface EntryConsumer {
+            void accept(long key, int value);
+        }
+
+        void add(long key, int delta) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                // Nothing to take away from a pair that was never counted
+                if (delta <= 0) {
+                    return;
+                }
+                keys[i] = key;
+                values[i] = delta;
+                if (++size * 4 > keys.length * 3) {
+                    resize(keys.length * 2);
+                }
+                return;
+            }
+            values[i] += delta;
+            if (values[i] <= 0) {
+                delete(i);
+            }
+        }
+
+        void forEach(EntryConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void delete(int hole) {
+            int mask = keys.length - 1;
+            keys[hole] = 0;
+            size--;
+            for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                // Moves back unless its home slot lies cyclically between the hole and where it is
+                if (((i - slot(keys[i], mask)) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    keys[i] = 0;
+                    hole = i;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0) {
+                    int i = slot(oldKeys[j], mask);
+                    while (keys[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
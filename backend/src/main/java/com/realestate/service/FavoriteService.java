@@ -1,5 +1,7 @@
 package com.realestate.service;
 
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.cache.JsonFragment;
 import com.realestate.dto.PropertyDTO;
 import com.realestate.model.Favorite;
 import com.realestate.model.Property;
@@ -8,10 +10,13 @@ import com.realestate.repository.FavoriteRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +34,12 @@ public class FavoriteService {
     @Autowired
     private PropertyService propertyService;
     
+    @Autowired
+    private FavoriteRecommender favoriteRecommender;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional
     public void addFavorite(Long propertyId, String username) {
         User user = userRepository.findByUsername(username)
@@ -45,6 +56,7 @@ public class FavoriteService {
         favorite.setUser(user);
         favorite.setProperty(property);
         favoriteRepository.save(favorite);
+        eventPublisher.publishEvent(EntityChangeEvent.favorites(user.getId()));
     }
     
     @Transactional
@@ -56,8 +68,25 @@ public class FavoriteService {
                 .orElseThrow(() -> new RuntimeException("Property not found"));
         
         favoriteRepository.deleteByUserAndProperty(user, property);
+        eventPublisher.publishEvent(EntityChangeEvent.favorites(user.getId()));
     }
     
+    /** "Recommended for you": approved listings favorited by users with similar favorites. */
+    @Transactional(readOnly = true)
+    public List<JsonFragment> getRecommendations(Long userId, int limit) {
+        // Extra ids make up for listings sold or rented since, or removed since the model's last refresh
+        List<Long> ids = favoriteRecommender.recommend(userId, limit * 2);
+        Map<Long, Property> loaded = propertyRepository.findByIdInAndStatus(ids, Property.PropertyStatus.APPROVED).stream()
+                .collect(Collectors.toMap(Property::getId, p -> p));
+        return ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .map(propertyService::toJson)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
     public List<PropertyDTO> getUserFavorites(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -67,6 +96,13 @@ public class FavoriteService {
                 .collect(Collectors.toList());
     }
     
+    /** Ids of the listings the user has favorited, so a client can mark every card in one go. */
+    @Transactional(readOnly = true)
+    public List<Long> getFavoriteIds(Long userId) {
+        return favoriteRepository.findPropertyIdsByUserId(userId);
+    }
+    
+    @Transactional(readOnly = true)
     public boolean isFavorite(Long propertyId, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
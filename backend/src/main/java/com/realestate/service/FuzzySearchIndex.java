@@ -0,0 +1,382 @@
+package com.realestate.service;
+
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertyRepository.SuggestionSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant search over the title, address, city and district of APPROVED listings.
+ *
+ * The words of those fields form a vocabulary with a trigram index over it and, per word, a
+ * sorted list of the listings containing it. A query word is matched against vocabulary words
+ * sharing a trigram with it and within one edit (two for words over four letters), ranked by
+ * trigram similarity and edit distance; so the work per query depends on the vocabulary, not
+ * the number of listings. Candidate listings come from the most selective query word, newest
+ * first and capped at app.fuzzy-search.max-candidates; the other words are then looked up in
+ * their lists by binary search.
+ *
+ * Listings changed here or on another instance are re-read every app.fuzzy-search.refresh-ms
+ * and added under their current words. Words a listing no longer has are only dropped by a
+ * rebuild, which runs once such changes pass app.fuzzy-search.max-stale-ratio of the index;
+ * until then callers re-check the status of what they load.
+ */
+@Component
+public class FuzzySearchIndex extends IncrementalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuzzySearchIndex.class);
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "near", "from", "into", "no");
+    private static final int MAX_QUERY_WORDS = 6;
+    private static final int MAX_WORD_LENGTH = 40;
+    private static final int REFRESH_BATCH = 500;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.fuzzy-search.expansions:5}")
+    private int expansions;
+
+    @Value("${app.fuzzy-search.max-candidates:5000}")
+    private int maxCandidates;
+
+    @Value("${app.fuzzy-search.max-results:500}")
+    private int maxResults;
+
+    @Value("${app.fuzzy-search.max-stale-ratio:0.1}")
+    private double maxStaleRatio;
+
+    @Value("${app.fuzzy-search.load-page-size:5000}")
+    private int loadPageSize;
+
+    private volatile State state = new State();
+    // Bumped whenever search results may change; written only by the refresh thread
+    private volatile long generation;
+
+    private Timer queryTimer;
+
+    public FuzzySearchIndex() {
+        super(EntityChangeEvent.Type.PROPERTY);
+    }
+
+    @PostConstruct
+    public void init() {
+        queryTimer = meterRegistry.timer("fuzzy_search.query");
+        meterRegistry.gauge("fuzzy_search.words", this, index -> index.state.words.size());
+    }
+
+    /** Ids of the best matching approved listings, best first, at most app.fuzzy-search.max-results. */
+    public List<Long> search(String query) {
+        return queryTimer.record(() -> {
+            State current = state;
+            current.lock.readLock().lock();
+            try {
+                return current.search(query);
+            } finally {
+                current.lock.readLock().unlock();
+            }
+        });
+    }
+
+    /** Changes whenever the index does, so validators over fuzzy results can include it. */
+    public long generation() {
+        return generation;
+    }
+
+    public void listingChanged(long propertyId) {
+        changed(propertyId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.fuzzy-search.refresh-ms:1000}")
+    public void refresh() {
+        super.refresh();
+    }
+
+    @Override
+    protected void apply(List<Long> ids) {
+        State current = state;
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH) {
+            List<SuggestionSource> approved = propertyRepository.findSuggestionSourcesByIdIn(
+                    Property.PropertyStatus.APPROVED, ids.subList(from, Math.min(from + REFRESH_BATCH, ids.size())));
+            current.lock.writeLock().lock();
+            try {
+                approved.forEach(current::add);
+            } finally {
+                current.lock.writeLock().unlock();
+            }
+            generation++;
+        }
+        current.stale += ids.size();
+        if (current.stale > maxStaleRatio * Math.max(current.listings, 1000)) {
+            requestRebuild();
+        }
+    }
+
+    @Override
+    protected void rebuild() {
+        long start = System.nanoTime();
+        State fresh = new State();
+        long afterId = 0;
+        List<SuggestionSource> page;
+        do {
+            page = propertyRepository.findSuggestionSources(Property.PropertyStatus.APPROVED, afterId, PageRequest.of(0, loadPageSize));
+            for (SuggestionSource source : page) {
+                fresh.add(source);
+                fresh.listings++;
+                afterId = source.getId();
+            }
+        } while (page.size() == loadPageSize);
+        state = fresh;
+        generation++;
+        logger.info("Indexed {} search words from {} listings in {} ms", fresh.words.size(), fresh.listings,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static Set<String> words(String... texts) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : WORD_SEPARATORS.split(text.toLowerCase())) {
+                if (word.length() >= 2 && word.length() <= MAX_WORD_LENGTH && !STOP_WORDS.contains(word)
+                        && !word.chars().allMatch(Character::isDigit)) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    // Padded like pg_trgm, so the start of a word weighs more than its end
+    private static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /** Optimal string alignment distance (adjacent transpositions count as one edit), or max + 1 once it is exceeded. */
+    private static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, previous2[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private record Expansion(int wordId, double score) {}
+
+    private final class State {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Integer> wordIds = new HashMap<>();
+        private final List<String> words = new ArrayList<>();
+        private final List<IntList> postings = new ArrayList<>();
+        private final IntList trigramCounts = new IntList();
+        private final Map<String, IntList> wordsByTrigram = new HashMap<>();
+        // Only counts the initial build
+        private int listings;
+        // Listings re-added since the build, each possibly leaving entries under words it lost
+        private int stale;
+
+        void add(SuggestionSource source) {
+            // Listing ids are stored as ints to halve the postings; fails loudly past 2^31
+            int listingId = Math.toIntExact(source.getId());
+            for (String word : words(source.getTitle(), source.getAddress(), source.getCity(), source.getDistrict())) {
+                postings.get(wordId(word)).insertSorted(listingId);
+            }
+        }
+
+        private int wordId(String word) {
+            Integer id = wordIds.get(word);
+            if (id != null) {
+                return id;
+            }
+            int newId = words.size();
+            wordIds.put(word, newId);
+            words.add(word);
+            postings.add(new IntList());
+            Set<String> trigrams = trigrams(word);
+            trigramCounts.add(trigrams.size());
+            for (String trigram : trigrams) {
+                wordsByTrigram.computeIfAbsent(trigram, k -> new IntList()).add(newId);
+            }
+            return newId;
+        }
+
+        List<Long> search(String query) {
+            List<List<Expansion>> terms = new ArrayList<>();
+            for (String word : words(query)) {
+                List<Expansion> expanded = expand(word);
+                // A word that matches nothing is ignored rather than emptying the results
+                if (!expanded.isEmpty()) {
+                    terms.add(expanded);
+                }
+                if (terms.size() == MAX_QUERY_WORDS) {
+                    break;
+                }
+            }
+            if (terms.isEmpty()) {
+                return List.of();
+            }
+            // Candidates come from the most selective word; the rest only score them
+            terms.sort(Comparator.comparingLong(this::postingCount));
+            Map<Integer, double[]> candidates = new LinkedHashMap<>();
+            for (Expansion expansion : terms.get(0)) {
+                IntList listingIds = postings.get(expansion.wordId());
+                for (int i = listingIds.size - 1; i >= 0 && candidates.size() < maxCandidates; i--) {
+                    double[] scores = candidates.computeIfAbsent(listingIds.values[i], k -> new double[terms.size()]);
+                    scores[0] = Math.max(scores[0], expansion.score());
+                }
+            }
+            for (int t = 1; t < terms.size(); t++) {
+                for (Map.Entry<Integer, double[]> candidate : candidates.entrySet()) {
+                    for (Expansion expansion : terms.get(t)) {
+                        if (expansion.score() > candidate.getValue()[t]
+                                && postings.get(expansion.wordId()).contains(candidate.getKey())) {
+                            // Expansions are best first, so the first hit is the best
+                            candidate.getValue()[t] = expansion.score();
+                            break;
+                        }
+                    }
+                }
+            }
+            record Ranked(long id, int matched, double score) {}
+            return candidates.entrySet().stream()
+                    .map(candidate -> new Ranked(candidate.getKey(),
+                            (int) Arrays.stream(candidate.getValue()).filter(s -> s > 0).count(),
+                            Arrays.stream(candidate.getValue()).sum()))
+                    .sorted(Comparator.comparingInt(Ranked::matched).reversed()
+                            .thenComparing(Comparator.comparingDouble(Ranked::score).reversed())
+                            .thenComparing(Comparator.comparingLong(Ranked::id).reversed()))
+                    .limit(maxResults)
+                    .map(Ranked::id)
+                    .toList();
+        }
+
+        private long postingCount(List<Expansion> term) {
+            return term.stream().mapToLong(expansion -> postings.get(expansion.wordId()).size).sum();
+        }
+
+        /** Vocabulary words within the edit budget of word, best first. */
+        private List<Expansion> expand(String word) {
+            int maxEdits = word.length() <= 4 ? 1 : 2;
+            Set<String> queryTrigrams = trigrams(word);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                IntList wordList = wordsByTrigram.get(trigram);
+                if (wordList == null) {
+                    continue;
+                }
+                for (int i = 0; i < wordList.size; i++) {
+                    int wordId = wordList.values[i];
+                    if (Math.abs(words.get(wordId).length() - word.length()) <= maxEdits) {
+                        shared.merge(wordId, 1, Integer::sum);
+                    }
+                }
+            }
+            List<Expansion> expanded = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+                String candidate = words.get(entry.getKey());
+                int edits = editDistance(word, candidate, maxEdits);
+                if (edits > maxEdits) {
+                    continue;
+                }
+                int common = entry.getValue();
+                double similarity = (double) common / (queryTrigrams.size() + trigramCounts.values[entry.getKey()] - common);
+                double closeness = 1 - (double) edits / Math.max(word.length(), candidate.length());
+                expanded.add(new Expansion(entry.getKey(), (similarity + closeness) / 2));
+            }
+            // Ties go to the more common spelling
+            expanded.sort(Comparator.comparingDouble(Expansion::score).reversed()
+                    .thenComparing(Comparator.comparingInt((Expansion e) -> postings.get(e.wordId()).size).reversed()));
+            return expanded.size() <= expansions ? expanded : expanded.subList(0, expansions);
+        }
+    }
+
+    /** Growable int array; postings are kept sorted and free of duplicates. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void insertSorted(int value) {
+            // Ids mostly arrive in ascending order: the initial load is by id and new listings get higher ones
+            if (size == 0 || values[size - 1] < value) {
+                add(value);
+                return;
+            }
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            add(0);
+            System.arraycopy(values, at, values, at + 1, size - 1 - at);
+            values[at] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.realestate.service;
+
+import com.realestate.cache.JsonFragment;
+import com.realestate.dto.HomePageDTO;
+import com.realestate.monitoring.QueryStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything the home page needs in one round trip: featured, latest, the first page of
+ * listings and, for a signed-in user, their favorite ids.
+ *
+ * The parts run in parallel on a bounded pool and share one deadline of
+ * app.home.part-timeout-ms. A part that fails, times out or can't get a thread is left
+ * null and named in "unavailable" rather than failing the page; only when every part is
+ * missing does the caller get a 503. Listings that appear in several parts are rendered
+ * once (see PropertyJsonCache), so their owner and images are looked up once too.
+ *
+ * Metrics: home.part{part,outcome} counter.
+ */
+@Service
+public class HomePageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomePageService.class);
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyReadCoalescer propertyReadCoalescer;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.home.threads:8}")
+    private int threads;
+
+    @Value("${app.home.queue-size:64}")
+    private int queueSize;
+
+    @Value("${app.home.part-timeout-ms:1500}")
+    private long partTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        // Bounded either way: each running part may hold a pooled database connection
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("home-part-", 0).factory()
+                : Thread.ofPlatform().name("home-part-", 0).daemon().factory();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("home.queue", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public HomePageDTO getHomePage(Long userId, int size) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+        Future<List<JsonFragment>> featured = submit("featured", propertyReadCoalescer::getFeaturedProperties);
+        Future<List<JsonFragment>> latest = submit("latest", propertyReadCoalescer::getLatestProperties);
+        Future<Page<JsonFragment>> listings = submit("listings", () -> propertyService.getAllProperties(0, size));
+        Future<List<Long>> favoriteIds = userId == null ? null : submit("favorites", () -> favoriteService.getFavoriteIds(userId));
+
+        HomePageDTO home = new HomePageDTO();
+        home.setFeatured(await("featured", featured, deadline, home));
+        home.setLatest(await("latest", latest, deadline, home));
+        home.setListings(await("listings", listings, deadline, home));
+        if (userId != null) {
+            home.setFavoriteIds(await("favorites", favoriteIds, deadline, home));
+        }
+        if (home.getFeatured() == null && home.getLatest() == null && home.getListings() == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Home page is unavailable, please retry");
+        }
+        return home;
+    }
+
+    private <T> Future<T> submit(String part, Callable<T> task) {
+        try {
+            // Carries the caller's security context over: replica routing pins a user's reads after their writes.
+            // The request's query stats come along too, so its statement count covers every part
+            return executor.submit(DelegatingSecurityContextCallable.create(QueryStats.propagate(task),
+                    SecurityContextHolder.getContext()));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("home.part", "part", part, "outcome", "rejected").increment();
+            return null;
+        }
+    }
+
+    private <T> T await(String part, Future<T> future, long deadline, HomePageDTO home) {
+        String outcome;
+        if (future == null) {
+            outcome = "rejected";
+        } else {
+            try {
+                T result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                meterRegistry.counter("home.part", "part", part, "outcome", "ok").increment();
+                return result;
+            } catch (TimeoutException e) {
+                // Not interrupted: an interrupted JDBC call can cost the pooled connection
+                future.cancel(false);
+                outcome = "timeout";
+            } catch (ExecutionException e) {
+                logger.warn("Home page part {} failed", part, e.getCause());
+                outcome = "error";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                outcome = "interrupted";
+            }
+            meterRegistry.counter("home.part", "part", part, "outcome", outcome).increment();
+        }
+        home.getUnavailable().add(part);
+        return null;
+    }
+}
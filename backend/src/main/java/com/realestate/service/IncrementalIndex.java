@@ -0,0 +1,72 @@
+package com.realestate.service;
+
+import com.realestate.cache.EntityChangeEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lifecycle of an in-memory structure built from the database and kept current by change
+ * events: the typeahead, fuzzy search and similar-listings indexes and the recommendation model.
+ *
+ * Ids changed here, or on another instance via the cache invalidation bus, are queued and
+ * handed to apply() in one go on the subclass's next scheduled refresh(). A full rebuild()
+ * replaces that on the next refresh once requested: at startup, when CacheInvalidator reports
+ * that change notifications may have been missed, or when the subclass decides the incremental
+ * updates have drifted too far. Refreshes never overlap; readers keep using the previous state
+ * while a rebuild runs. The scheduler has a thread per job (spring.task.scheduling.pool.size),
+ * so the database reads of a long rebuild hold up only their own index.
+ */
+public abstract class IncrementalIndex {
+
+    private final EntityChangeEvent.Type changeType;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildRequested;
+
+    protected IncrementalIndex(EntityChangeEvent.Type changeType) {
+        this.changeType = changeType;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        rebuildRequested = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.type() == changeType) {
+            changed(event.id());
+        }
+    }
+
+    protected void changed(long id) {
+        changed.add(id);
+    }
+
+    /** Called by the subclass's @Scheduled method, at the interval it is configured with. */
+    protected synchronized void refresh() {
+        if (rebuildRequested) {
+            rebuildRequested = false;
+            changed.clear();
+            rebuild();
+            return;
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        apply(ids);
+    }
+
+    /** Replaces the whole structure with one read from the database. */
+    protected abstract void rebuild();
+
+    /** Re-reads the given ids and updates the structure in place. */
+    protected abstract void apply(List<Long> ids);
+}
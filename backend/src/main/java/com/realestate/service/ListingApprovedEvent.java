@@ -0,0 +1,9 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyDTO;
+
+/**
+ * Published by PropertyService when a listing goes live, carrying the listing as it was
+ * committed so listeners don't have to read it back.
+ */
+public record ListingApprovedEvent(PropertyDTO property) {}
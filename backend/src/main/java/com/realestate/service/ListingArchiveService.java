@@ -0,0 +1,102 @@
+package com.realestate.service;
+
+import com.realestate.model.Property;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps "properties" down to live listings: sold, rented and rejected listings that haven't
+ * changed for app.archive.min-age-days are moved, with their images and favorites, into the
+ * *_archive tables in small transactions. PropertyService still resolves archived ids, and
+ * UploadCleanupService keeps their image files.
+ */
+@Service
+public class ListingArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingArchiveService.class);
+
+    private static final List<Property.PropertyStatus> CLOSED = List.of(
+            Property.PropertyStatus.SOLD, Property.PropertyStatus.RENTED, Property.PropertyStatus.REJECTED);
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${app.archive.initial-delay-ms:600000}")
+    private long initialDelayMs;
+
+    @Value("${app.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    // Own thread rather than @Scheduled: the pauses between batches are scheduled, not slept,
+    // and a pass that takes a while doesn't occupy a shared scheduling thread
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("listing-archive").daemon().factory());
+        executor.schedule(this::archiveClosedListings, initialDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void archiveClosedListings() {
+        archiveBatch(LocalDateTime.now().minusDays(minAgeDays), 0);
+    }
+
+    // One short transaction per batch, with a pause before the next so live traffic isn't held up
+    private void archiveBatch(LocalDateTime cutoff, long archivedSoFar) {
+        long archived = archivedSoFar;
+        try {
+            int moved = propertyService.archiveClosedListings(CLOSED, cutoff, batchSize);
+            archived += moved;
+            meterRegistry.counter("listings.archived").increment(moved);
+            if (moved == batchSize) {
+                long total = archived;
+                executor.schedule(() -> archiveBatch(cutoff, total), batchPauseMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Listing archival failed after {} listings: {}", archived, e.getMessage());
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} closed listings not updated since {}", archived, cutoff);
+        }
+        executor.schedule(this::archiveClosedListings, intervalMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,57 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A listing lifecycle change pushed to /api/properties/stream and /api/admin/feed
+ * subscribers. Published by PropertyService and delivered by ListingFeedService after commit.
+ */
+public record ListingEvent(Kind kind, long propertyId, String title, String district, String city,
+                           Property.ListingType listingType, Property.PropertyStatus status,
+                           BigDecimal price, LocalDateTime occurredAt) {
+    
+    public enum Kind {
+        PENDING, APPROVED, REJECTED, SOLD, RENTED, PRICE_CHANGED, REMOVED;
+        
+        static Kind of(Property.PropertyStatus status) {
+            return switch (status) {
+                case PENDING -> PENDING;
+                case APPROVED -> APPROVED;
+                case REJECTED -> REJECTED;
+                case SOLD -> SOLD;
+                case RENTED -> RENTED;
+            };
+        }
+    }
+    
+    static ListingEvent of(Kind kind, PropertyDTO property) {
+        return new ListingEvent(kind, property.getId(), property.getTitle(), property.getDistrict(), property.getCity(),
+                property.getListingType(), property.getStatus(), property.getPrice(), LocalDateTime.now());
+    }
+    
+    static ListingEvent of(Kind kind, Property property) {
+        return new ListingEvent(kind, property.getId(), property.getTitle(), property.getDistrict(), property.getCity(),
+                property.getListingType(), property.getStatus(), property.getPrice(), LocalDateTime.now());
+    }
+    
+    static ListingEvent removed(long propertyId) {
+        return new ListingEvent(Kind.REMOVED, propertyId, null, null, null, null, null, null, LocalDateTime.now());
+    }
+    
+    /** Kinds anonymous subscribers see; moderation outcomes other than approval stay private. */
+    @JsonIgnore
+    public boolean isPublic() {
+        return kind != Kind.PENDING && kind != Kind.REJECTED;
+    }
+    
+    /** Kinds that add to or drain the moderation queue. */
+    @JsonIgnore
+    public boolean isModeration() {
+        return kind == Kind.PENDING || kind == Kind.APPROVED || kind == Kind.REJECTED || kind == Kind.REMOVED;
+    }
+}
@@ -0,0 +1,296 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.repository.PropertyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events fan-out of listing lifecycle events.
+ *
+ * An open stream is an async request, so idle subscribers hold no thread. Each subscriber has
+ * a bounded queue of pre-serialized frames; publishing only offers to those queues and hands
+ * the subscriber to a small sender pool if it isn't already being drained. A subscriber whose
+ * queue is full isn't keeping up and is dropped rather than slowing everyone else down;
+ * clients reconnect and refresh over the REST endpoints.
+ *
+ * Sends block, so a client that stops reading would hold its sender thread until Tomcat's
+ * write timeout gives up on the socket. A send still running after send-timeout-ms gets its
+ * subscriber evicted and the thread written off: the pool grows by one for as long as that
+ * send stays blocked, so the other subscribers keep sender-threads between them.
+ *
+ * Events from other instances arrive over the cache invalidation bus as listing ids and are
+ * rebuilt here from the database (see relay).
+ */
+@Service
+public class ListingFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingFeedService.class);
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.feed.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${app.feed.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.feed.sender-threads:8}")
+    private int senderThreads;
+
+    @Value("${app.feed.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong nextSubscriberId = new AtomicLong();
+    private final AtomicLong nextEventId = new AtomicLong();
+
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("").build();
+
+    private ThreadPoolExecutor senders;
+    private int stalledSenders;
+
+    @PostConstruct
+    public void init() {
+        // Platform threads even in virtual-thread mode: SseEmitter.send writes while holding its monitor
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("listing-feed-", 0).daemon().factory());
+        meterRegistry.gaugeMapSize("listing_feed.subscribers", Tags.empty(), subscribers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(subscriber -> evict(subscriber, "shutdown"));
+        senders.shutdown();
+    }
+
+    /** Public stream, optionally narrowed to some districts and/or listing ids (either may match). */
+    public SseEmitter subscribe(Collection<String> districts, Collection<Long> propertyIds) {
+        Predicate<ListingEvent> filter = ListingEvent::isPublic;
+        return subscribe(filter.and(scope(districts, propertyIds)));
+    }
+
+    /** Moderation stream: listings entering the PENDING queue and leaving it. */
+    public SseEmitter subscribeModeration(Collection<String> districts) {
+        Predicate<ListingEvent> filter = ListingEvent::isModeration;
+        return subscribe(filter.and(scope(districts, null)));
+    }
+
+    private SseEmitter subscribe(Predicate<ListingEvent> filter) {
+        if (subscribers.size() >= maxSubscribers) {
+            meterRegistry.counter("listing_feed.rejected").increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open feeds, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(nextSubscriberId.incrementAndGet(), emitter, filter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(e -> subscribers.remove(subscriber.id));
+        subscribers.put(subscriber.id, subscriber);
+        // Commits the response headers straight away so the client knows it is connected
+        enqueue(subscriber, SseEmitter.event().reconnectTime(5000).comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingEvent(ListingEvent event) {
+        broadcast(event);
+    }
+
+    /** Rebuilds and delivers an event another instance published for this listing. */
+    @Transactional
+    public void relay(long propertyId, boolean priceChanged) {
+        ListingEvent event = propertyRepository.findById(propertyId)
+                .map(property -> ListingEvent.of(priceChanged ? ListingEvent.Kind.PRICE_CHANGED
+                        : ListingEvent.Kind.of(property.getStatus()), property))
+                .orElseGet(() -> ListingEvent.removed(propertyId));
+        broadcast(event);
+    }
+
+    // Also flushes out connections the client has silently dropped
+    @Scheduled(fixedDelayString = "${app.feed.heartbeat-ms:20000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(subscriber -> enqueue(subscriber, heartbeat));
+    }
+
+    // Checked at the timeout's own interval, so a stalled send is noticed within twice the timeout
+    @Scheduled(fixedDelayString = "${app.feed.send-timeout-ms:5000}")
+    public void evictStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStartedAt;
+            if (started == 0 || now - started < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)
+                    || !subscriber.stalled.compareAndSet(false, true)) {
+                continue;
+            }
+            addSender();
+            evict(subscriber, "stalled");
+            // The send may have returned between the read above and the flag being set
+            if (subscriber.sendStartedAt != started && subscriber.stalled.compareAndSet(true, false)) {
+                removeSender();
+            }
+        }
+    }
+
+    // Replaces a sender stuck on a stalled client, up to twice sender-threads in all
+    private synchronized void addSender() {
+        stalledSenders++;
+        int size = senderThreads + Math.min(stalledSenders, senderThreads);
+        senders.setMaximumPoolSize(size);
+        senders.setCorePoolSize(size);
+    }
+
+    private synchronized void removeSender() {
+        stalledSenders--;
+        int size = senderThreads + Math.min(stalledSenders, senderThreads);
+        senders.setCorePoolSize(size);
+        senders.setMaximumPoolSize(size);
+    }
+
+    private void broadcast(ListingEvent event) {
+        meterRegistry.counter("listing_feed.events", "kind", event.kind().name()).increment();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame;
+        try {
+            // Serialized once, shared by every subscriber
+            frame = SseEmitter.event()
+                    .id(Long.toString(nextEventId.incrementAndGet()))
+                    .name(event.kind().name())
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize listing event {}", event, e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.filter.test(event)) {
+                enqueue(subscriber, frame);
+            }
+        }
+    }
+
+    private static Predicate<ListingEvent> scope(Collection<String> districts, Collection<Long> propertyIds) {
+        Set<String> wantedDistricts = districts == null ? Set.of()
+                : districts.stream().map(d -> d.trim().toLowerCase()).collect(Collectors.toSet());
+        Set<Long> wantedIds = propertyIds == null ? Set.of() : Set.copyOf(propertyIds);
+        if (wantedDistricts.isEmpty() && wantedIds.isEmpty()) {
+            return event -> true;
+        }
+        return event -> wantedIds.contains(event.propertyId())
+                || (event.district() != null && wantedDistricts.contains(event.district().toLowerCase()));
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            evict(subscriber, "slow");
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.evicted && (frame = subscriber.queue.poll()) != null) {
+                send(subscriber, frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; Tomcat reports it through onError/onCompletion as well
+            subscribers.remove(subscriber.id);
+            subscriber.evicted = true;
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.evicted) {
+            // Completed here rather than by the publisher: the emitter lock may be held by a blocked send
+            subscriber.emitter.complete();
+        } else if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber, Set<DataWithMediaType> frame) throws IOException {
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(frame);
+        } finally {
+            subscriber.sendStartedAt = 0;
+            if (subscriber.stalled.compareAndSet(true, false)) {
+                removeSender();
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.id) == null) {
+            return;
+        }
+        subscriber.evicted = true;
+        meterRegistry.counter("listing_feed.evicted", "reason", reason).increment();
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Predicate<ListingEvent> filter;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile boolean evicted;
+
+        Subscriber(long id, SseEmitter emitter, Predicate<ListingEvent> filter, int bufferSize) {
+            this.id = id;
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.realestate.service;
+
+import com.realestate.cache.JsonFragment;
+import com.realestate.cache.SingleFlight;
+import com.realestate.dto.PropertyDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Sits in front of PropertyService for the hottest public reads so that a burst of
+ * identical requests shares one database load. It deliberately lives outside
+ * PropertyService: waiting followers must not open a transaction (and hold a pooled
+ * connection) while the leader does the work.
+ */
+@Service
+public class PropertyReadCoalescer {
+    
+    @Autowired
+    private PropertyService propertyService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.coalescing.timeout-ms:5000}")
+    private long timeoutMs;
+    
+    private SingleFlight<Long, PropertyDTO> details;
+    private SingleFlight<String, List<JsonFragment>> lists;
+    
+    @PostConstruct
+    void init() {
+        details = new SingleFlight<>("property.detail", timeoutMs, meterRegistry);
+        lists = new SingleFlight<>("property.lists", timeoutMs, meterRegistry);
+    }
+    
+    public PropertyDTO getPropertyById(Long id) {
+        return details.execute(id, () -> propertyService.getPropertyById(id));
+    }
+    
+    public List<JsonFragment> getLatestProperties() {
+        return lists.execute("latest", propertyService::getLatestProperties);
+    }
+    
+    public List<JsonFragment> getFeaturedProperties() {
+        return lists.execute("featured", propertyService::getFeaturedProperties);
+    }
+}
@@ -1,12 +1,27 @@
 package com.realestate.service;
 
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.cache.JsonFragment;
+import com.realestate.cache.PropertyJsonCache;
 import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.PropertySummaryDTO;
+import com.realestate.model.ArchivedProperty;
 import com.realestate.model.Property;
 import com.realestate.model.PropertyImage; // Import
 import com.realestate.model.User;
+import com.realestate.repository.ArchivedFavoriteRepository;
+import com.realestate.repository.ArchivedPropertyImageRepository;
+import com.realestate.repository.ArchivedPropertyRepository;
+import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.PropertyImageRepository;
 import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertyRepository.PropertySummary;
 import com.realestate.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,8 +32,13 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.*; // Import
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -27,11 +47,37 @@ public class PropertyService {
     
     @Autowired private PropertyRepository propertyRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private PropertyImageRepository propertyImageRepository;
+    @Autowired private FavoriteRepository favoriteRepository;
+    @Autowired private PropertyJsonCache propertyJsonCache;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private ArchivedPropertyRepository archivedPropertyRepository;
+    @Autowired private ArchivedPropertyImageRepository archivedPropertyImageRepository;
+    @Autowired private ArchivedFavoriteRepository archivedFavoriteRepository;
+    @Autowired private FuzzySearchIndex fuzzySearchIndex;
+    @Autowired private SimilarListingsIndex similarListingsIndex;
 
-    // Define upload directory
-    private final String UPLOAD_DIR = "uploads/";
+    // Define upload directory (shared with UploadCleanupService)
+    @Value("${app.upload-dir:uploads/}")
+    private String uploadDir;
+
+    // Exact searches finding fewer listings than this are topped up from the fuzzy index
+    @Value("${app.fuzzy-search.fallback-below-hits:3}")
+    private int fuzzyFallbackBelowHits;
+
+    // How long a listings fingerprint is reused before it is read from the database again
+    @Value("${app.listings-version.ttl-ms:1000}")
+    private long listingsVersionTtlMs;
+
+    private volatile String listingsVersion;
+    private volatile long listingsVersionReadAt;
 
     public PropertyDTO convertToDTO(Property property) {
+        return meterRegistry.timer("property.dto.convert").record(() -> buildDTO(property));
+    }
+
+    private PropertyDTO buildDTO(Property property) {
         PropertyDTO dto = new PropertyDTO();
         dto.setId(property.getId());
         dto.setTitle(property.getTitle());
@@ -65,6 +111,29 @@ public class PropertyService {
         return dto;
     }
 
+    private static PropertySummaryDTO toSummaryDTO(PropertySummary summary) {
+        PropertySummaryDTO dto = new PropertySummaryDTO();
+        dto.setId(summary.getId());
+        dto.setTitle(summary.getTitle());
+        dto.setType(summary.getType());
+        dto.setListingType(summary.getListingType());
+        dto.setPrice(summary.getPrice());
+        dto.setCity(summary.getCity());
+        dto.setDistrict(summary.getDistrict());
+        dto.setBedrooms(summary.getBedrooms());
+        dto.setBathrooms(summary.getBathrooms());
+        dto.setFloorSize(summary.getFloorSize());
+        dto.setLandSize(summary.getLandSize());
+        dto.setFeatured(summary.getFeatured());
+        dto.setThumbnailUrl(summary.getThumbnailUrl());
+        return dto;
+    }
+
+    // Pre-serialized convertToDTO output for the public listing endpoints
+    public JsonFragment toJson(Property property) {
+        return propertyJsonCache.get(property, this::convertToDTO);
+    }
+
     @Transactional
     public PropertyDTO createProperty(PropertyDTO propertyDTO, String username) {
         User owner = userRepository.findByUsername(username)
@@ -88,7 +157,9 @@ public class PropertyService {
         property.setStatus(Property.PropertyStatus.PENDING);
         
         Property saved = propertyRepository.save(property);
-        return convertToDTO(saved);
+        PropertyDTO dto = convertToDTO(saved);
+        listingEvent(ListingEvent.Kind.PENDING, dto);
+        return dto;
     }
 
     // --- NEW: Method to Upload Multiple Images ---
@@ -106,7 +177,7 @@ public class PropertyService {
         }
 
         // Ensure directory exists
-        Path uploadPath = Paths.get(UPLOAD_DIR);
+        Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
@@ -124,9 +195,12 @@ public class PropertyService {
             String fileName = UUID.randomUUID().toString() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
             
             // Save to disk
+            Timer.Sample write = Timer.start(meterRegistry);
             try (var inputStream = file.getInputStream()) {
                 Files.copy(inputStream, uploadPath.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
             }
+            write.stop(meterRegistry.timer("property.image.write"));
+            meterRegistry.summary("property.image.write.bytes").record(file.getSize());
 
             // Save to DB
             PropertyImage image = new PropertyImage();
@@ -139,6 +213,9 @@ public class PropertyService {
 
         // Set the updated images list back to property
         property.setImages(imagesList);
+        // Adding images doesn't dirty the property row itself, so bump the version explicitly
+        property.setUpdatedAt(LocalDateTime.now());
+        propertyChanged(propertyId);
         
         // Save and flush to ensure persistence
         Property updated = propertyRepository.save(property);
@@ -147,25 +224,105 @@ public class PropertyService {
         return convertToDTO(updated);
     }
 
+    // Version probes for conditional GETs: they never hydrate entities or run convertToDTO
+    @Transactional(readOnly = true)
+    public LocalDateTime getPropertyVersion(Long id) {
+        return propertyRepository.findUpdatedAtById(id)
+                .or(() -> archivedPropertyRepository.findUpdatedAtById(id))
+                .orElseThrow(() -> new RuntimeException("Property not found"));
+    }
+
+    public String getListingsVersion() {
+        long now = System.currentTimeMillis();
+        String version = listingsVersion;
+        if (version == null || now - listingsVersionReadAt > listingsVersionTtlMs) {
+            PropertyRepository.ListingVersion current =
+                    propertyRepository.findListingVersion(Property.PropertyStatus.APPROVED);
+            LocalDateTime lastUpdated = current.getLastUpdated();
+            version = current.getCount() + "-" + (lastUpdated == null ? 0 : versionStamp(lastUpdated));
+            listingsVersion = version;
+            listingsVersionReadAt = now;
+        }
+        return version;
+    }
+
+    public void clearListingsVersion() {
+        listingsVersion = null;
+    }
+
+    // Local caches are dropped now; other nodes hear about it once the transaction commits
+    private void propertyChanged(Long id) {
+        propertyJsonCache.evict(id);
+        listingsVersion = null;
+        eventPublisher.publishEvent(EntityChangeEvent.property(id));
+    }
+
+    // For the live feeds: delivered here after commit and relayed to the other instances over the bus
+    private void listingEvent(ListingEvent.Kind kind, PropertyDTO property) {
+        eventPublisher.publishEvent(ListingEvent.of(kind, property));
+        eventPublisher.publishEvent(kind == ListingEvent.Kind.PRICE_CHANGED
+                ? EntityChangeEvent.listingPrice(property.getId())
+                : EntityChangeEvent.listingStatus(property.getId()));
+    }
+
+    // Microsecond stamp of an updatedAt value, used to build ETags
+    public static long versionStamp(LocalDateTime updatedAt) {
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+    }
+
     // Keep your existing Get/Search/Filter/Update methods here...
     // Just ensure they call convertToDTO so the URLs are included.
     
+    @Transactional(readOnly = true)
     public PropertyDTO getPropertyById(Long id) {
+        // Closed listings moved to the archive still resolve by id
         Property property = propertyRepository.findById(id)
+                .or(() -> archivedPropertyRepository.findById(id).map(this::fromArchive))
                 .orElseThrow(() -> new RuntimeException("Property not found"));
         return convertToDTO(property);
     }
     
+    // Detached Property carrying the archived row, so convertToDTO renders it like any other
+    private Property fromArchive(ArchivedProperty archived) {
+        Property property = new Property();
+        property.setId(archived.getId());
+        property.setTitle(archived.getTitle());
+        property.setDescription(archived.getDescription());
+        property.setType(archived.getType());
+        property.setListingType(archived.getListingType());
+        property.setPrice(archived.getPrice());
+        property.setAddress(archived.getAddress());
+        property.setCity(archived.getCity());
+        property.setDistrict(archived.getDistrict());
+        property.setBedrooms(archived.getBedrooms());
+        property.setBathrooms(archived.getBathrooms());
+        property.setLandSize(archived.getLandSize());
+        property.setFloorSize(archived.getFloorSize());
+        property.setParkingSpaces(archived.getParkingSpaces());
+        property.setOwner(userRepository.getReferenceById(archived.getOwnerId()));
+        property.setStatus(archived.getStatus());
+        property.setFeatured(archived.getFeatured());
+        property.setApprovedAt(archived.getApprovedAt());
+        property.setCreatedAt(archived.getCreatedAt());
+        property.setUpdatedAt(archived.getUpdatedAt());
+        property.setImages(archivedPropertyImageRepository.findByPropertyIdOrderById(archived.getId()).stream()
+                .map(image -> new PropertyImage(image.getId(), image.getImageUrl(), property))
+                .collect(Collectors.toList()));
+        return property;
+    }
+    
     // Add the rest of your methods (getAllProperties, etc.) similarly...
     // I'm abbreviating to save space, but keep your existing logic, just use the new convertToDTO.
     
-    public Page<PropertyDTO> getAllProperties(int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<JsonFragment> getAllProperties(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         return propertyRepository.findByStatus(Property.PropertyStatus.APPROVED, pageable)
-                .map(this::convertToDTO);
+                .map(this::toJson);
     }
     
     // Add other methods from your original code...
+    @Transactional(readOnly = true)
     public Page<PropertyDTO> getMyProperties(String username, int page, int size) {
        User user = userRepository.findByUsername(username).orElseThrow();
        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
@@ -173,7 +330,8 @@ public class PropertyService {
     }
     
     // Helper for search/filter...
-    public Page<PropertyDTO> filterProperties(
+    @Transactional(readOnly = true)
+    public Page<JsonFragment> filterProperties(
             Property.PropertyType type, Property.ListingType listingType, String district, String city,
             BigDecimal minPrice, BigDecimal maxPrice, Integer minBedrooms, int page, int size) {
         
@@ -181,59 +339,235 @@ public class PropertyService {
         return propertyRepository.findByFilters(
                 type, listingType, district, city, minPrice, maxPrice, minBedrooms,
                 Property.PropertyStatus.APPROVED, pageable
-        ).map(this::convertToDTO);
+        ).map(this::toJson);
+    }
+    
+    // view=summary variants: one projection query, no entity, owner or image loads
+    @Transactional(readOnly = true)
+    public Page<PropertySummaryDTO> getAllPropertySummaries(int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        return propertyRepository.findSummariesByStatus(Property.PropertyStatus.APPROVED, pageable)
+                .map(PropertyService::toSummaryDTO);
     }
     
-    public Page<PropertyDTO> searchProperties(String keyword, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<PropertySummaryDTO> filterPropertySummaries(
+            Property.PropertyType type, Property.ListingType listingType, String district, String city,
+            BigDecimal minPrice, BigDecimal maxPrice, Integer minBedrooms, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        return propertyRepository.findSummariesByFilters(
+                type, listingType, district, city, minPrice, maxPrice, minBedrooms,
+                Property.PropertyStatus.APPROVED, pageable
+        ).map(PropertyService::toSummaryDTO);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<PropertySummaryDTO> getLatestPropertySummaries() {
+        return propertyRepository.findSummaryList(Property.PropertyStatus.APPROVED,
+                        PageRequest.of(0, 10, Sort.by("createdAt").descending()))
+                .stream().map(PropertyService::toSummaryDTO).collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<PropertySummaryDTO> getFeaturedPropertySummaries() {
+        return propertyRepository.findFeaturedSummaries(Property.PropertyStatus.APPROVED)
+                .stream().map(PropertyService::toSummaryDTO).collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<JsonFragment> searchProperties(String keyword, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         return propertyRepository.searchProperties(keyword, Property.PropertyStatus.APPROVED, pageable)
-                .map(this::convertToDTO);
+                .map(this::toJson);
     }
     
-    public List<PropertyDTO> getLatestProperties() {
+    /** A page of search results and whether the fuzzy index produced it. */
+    public record SearchResults(Page<JsonFragment> page, boolean fuzzy) {}
+
+    /**
+     * Exact search, or typo-tolerant search when fuzzy is true. When fuzzy is null the exact
+     * search runs first and, if it finds fewer than app.fuzzy-search.fallback-below-hits
+     * listings, those are followed by the fuzzy matches.
+     */
+    @Transactional(readOnly = true)
+    public SearchResults searchProperties(String keyword, Boolean fuzzy, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        List<Long> exactIds = List.of();
+        if (!Boolean.TRUE.equals(fuzzy)) {
+            Page<Property> exact = propertyRepository.searchProperties(keyword, Property.PropertyStatus.APPROVED, pageable);
+            if (Boolean.FALSE.equals(fuzzy) || exact.getTotalElements() >= fuzzyFallbackBelowHits) {
+                return new SearchResults(exact.map(this::toJson), false);
+            }
+            if (exact.getTotalElements() > exact.getNumberOfElements() || page > 0) {
+                exact = propertyRepository.searchProperties(keyword, Property.PropertyStatus.APPROVED,
+                        PageRequest.of(0, fuzzyFallbackBelowHits, pageable.getSort()));
+            }
+            exactIds = exact.map(Property::getId).getContent();
+        }
+
+        Set<Long> ranked = new LinkedHashSet<>(exactIds);
+        ranked.addAll(fuzzySearchIndex.search(keyword));
+        // The index can lag behind or still list a listing under words it lost, so status is re-checked
+        // before paging: every page is full and the total counts only listings that can be shown
+        if (!ranked.isEmpty()) {
+            ranked.retainAll(propertyRepository.findIdsByIdInAndStatus(ranked, Property.PropertyStatus.APPROVED));
+        }
+        List<Long> pageIds = ranked.stream().skip(pageable.getOffset()).limit(size).toList();
+        // Loaded again by id with the status: one may have changed since the check above
+        Map<Long, Property> loaded = propertyRepository.findByIdInAndStatus(pageIds, Property.PropertyStatus.APPROVED).stream()
+                .collect(Collectors.toMap(Property::getId, p -> p));
+        List<JsonFragment> content = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(this::toJson)
+                .toList();
+        return new SearchResults(new PageImpl<>(content, pageable, ranked.size()), true);
+    }
+    
+    /** Approved listings most like this one, closest first, from the in-memory similarity index. */
+    @Transactional(readOnly = true)
+    public List<JsonFragment> getSimilarProperties(Long id, int limit) {
+        List<Long> ids = similarListingsIndex.nearest(id, limit)
+                .orElseGet(() -> similarListingsIndex.nearest(propertyRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Property not found")), limit));
+        Map<Long, Property> loaded = propertyRepository.findByIdInAndStatus(ids, Property.PropertyStatus.APPROVED).stream()
+                .collect(Collectors.toMap(Property::getId, p -> p));
+        return ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .map(this::toJson)
+                .toList();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<JsonFragment> getLatestProperties() {
         return propertyRepository.findTop10ByStatusOrderByCreatedAtDesc(Property.PropertyStatus.APPROVED)
-                .stream().map(this::convertToDTO).collect(Collectors.toList());
+                .stream().map(this::toJson).collect(Collectors.toList());
     }
 
-    public List<PropertyDTO> getFeaturedProperties() {
+    @Transactional(readOnly = true)
+    public List<JsonFragment> getFeaturedProperties() {
         return propertyRepository.findByFeaturedTrueAndStatus(Property.PropertyStatus.APPROVED)
-                .stream().map(this::convertToDTO).collect(Collectors.toList());
+                .stream().map(this::toJson).collect(Collectors.toList());
     }
     
     @Transactional
     public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO, String username) {
-        Property property = propertyRepository.findById(id).orElseThrow();
-        // ... (validation)
+        Property property = propertyRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Property not found"));
+        
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        if (!property.getOwner().getId().equals(user.getId()) && 
+            !user.getRoles().stream().anyMatch(r -> r.getName().name().equals("ROLE_ADMIN"))) {
+            throw new RuntimeException("Not authorized to update this property");
+        }
+        
+        BigDecimal oldPrice = property.getPrice();
+        Property.PropertyStatus oldStatus = property.getStatus();
         property.setTitle(propertyDTO.title);
-        // ... copy other fields ...
-        return convertToDTO(propertyRepository.save(property));
+        property.setDescription(propertyDTO.description);
+        property.setType(propertyDTO.type);
+        property.setListingType(propertyDTO.listingType);
+        property.setPrice(propertyDTO.price);
+        property.setAddress(propertyDTO.address);
+        property.setCity(propertyDTO.city);
+        property.setDistrict(propertyDTO.district);
+        property.setBedrooms(propertyDTO.bedrooms);
+        property.setBathrooms(propertyDTO.bathrooms);
+        property.setLandSize(propertyDTO.landSize);
+        property.setFloorSize(propertyDTO.floorSize);
+        property.setParkingSpaces(propertyDTO.parkingSpaces);
+        // Owners may close a live listing; every other status change goes through moderation
+        if (oldStatus == Property.PropertyStatus.APPROVED
+                && (propertyDTO.status == Property.PropertyStatus.SOLD || propertyDTO.status == Property.PropertyStatus.RENTED)) {
+            property.setStatus(propertyDTO.status);
+        }
+        propertyChanged(id);
+        PropertyDTO dto = convertToDTO(propertyRepository.save(property));
+        
+        if (property.getStatus() != oldStatus) {
+            listingEvent(ListingEvent.Kind.of(property.getStatus()), dto);
+        } else if (oldStatus == Property.PropertyStatus.APPROVED && oldPrice.compareTo(property.getPrice()) != 0) {
+            listingEvent(ListingEvent.Kind.PRICE_CHANGED, dto);
+        }
+        return dto;
     }
     
     @Transactional
     public void deleteProperty(Long id, String username) {
-        // Your existing delete logic
-        Property property = propertyRepository.findById(id).orElseThrow(() -> new RuntimeException("Property not found"));
+        // Only the owner id is needed for the check, so don't hydrate the entity and its images
+        Long ownerId = propertyRepository.findOwnerIdById(id)
+                .orElseThrow(() -> new RuntimeException("Property not found"));
         
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        if (!property.getOwner().getId().equals(user.getId()) && 
+        if (!ownerId.equals(user.getId()) && 
             !user.getRoles().stream().anyMatch(r -> r.getName().name().equals("ROLE_ADMIN"))) {
             throw new RuntimeException("Not authorized to delete this property");
         }
         
-        propertyRepository.delete(property);
+        purgeProperty(id);
+    }
+    
+    // Set-based delete: one statement per table instead of cascading row by row.
+    // Image files left on disk are reclaimed later by UploadCleanupService.
+    private void purgeProperty(Long id) {
+        propertyChanged(id);
+        eventPublisher.publishEvent(ListingEvent.removed(id));
+        eventPublisher.publishEvent(EntityChangeEvent.listingStatus(id));
+        propertyImageRepository.deleteByPropertyId(id);
+        favoritesRemoved(List.of(id));
+        favoriteRepository.deleteByPropertyId(id);
+        propertyRepository.deletePropertyById(id);
+    }
+    
+    // The bulk deletes bypass FavoriteService, so the users who lose a favorite are announced here
+    // (the recommendation model re-reads them)
+    private void favoritesRemoved(List<Long> propertyIds) {
+        favoriteRepository.findUserIdsByPropertyIdIn(propertyIds)
+                .forEach(userId -> eventPublisher.publishEvent(EntityChangeEvent.favorites(userId)));
+    }
+    
+    // Moves up to batchSize closed listings last updated before the cutoff, with their images
+    // and favorites, into the archive tables. Returns how many listings were moved.
+    @Transactional
+    public int archiveClosedListings(List<Property.PropertyStatus> statuses, LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = propertyRepository.findArchivableIds(statuses, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedPropertyRepository.copyFromProperties(ids, LocalDateTime.now());
+        archivedPropertyImageRepository.copyFromPropertyImages(ids);
+        archivedFavoriteRepository.copyFromFavorites(ids);
+        
+        favoritesRemoved(ids);
+        favoriteRepository.deleteByPropertyIdIn(ids);
+        propertyImageRepository.deleteByPropertyIdIn(ids);
+        propertyRepository.deletePropertiesByIdIn(ids);
+        ids.forEach(this::propertyChanged);
+        return ids.size();
     }
     
     // Admin methods...
+    @Transactional(readOnly = true)
     public Page<PropertyDTO> getAllPropertiesAdmin(int page, int size) {
         return propertyRepository.findAll(PageRequest.of(page, size)).map(this::convertToDTO);
     }
     @Transactional public PropertyDTO approveProperty(Long id) {
-        Property p = propertyRepository.findById(id).orElseThrow(); p.setStatus(Property.PropertyStatus.APPROVED); return convertToDTO(propertyRepository.save(p));
+        Property p = propertyRepository.findById(id).orElseThrow();
+        boolean newlyApproved = p.getStatus() != Property.PropertyStatus.APPROVED;
+        p.setStatus(Property.PropertyStatus.APPROVED); propertyChanged(id);
+        PropertyDTO dto = convertToDTO(propertyRepository.save(p));
+        // Saved-search alerts and feed events go out once the approval has committed
+        if (newlyApproved) { eventPublisher.publishEvent(new ListingApprovedEvent(dto)); listingEvent(ListingEvent.Kind.APPROVED, dto); }
+        return dto;
     }
     @Transactional public PropertyDTO rejectProperty(Long id) {
-        Property p = propertyRepository.findById(id).orElseThrow(); p.setStatus(Property.PropertyStatus.REJECTED); return convertToDTO(propertyRepository.save(p));
+        Property p = propertyRepository.findById(id).orElseThrow(); p.setStatus(Property.PropertyStatus.REJECTED); propertyChanged(id);
+        PropertyDTO dto = convertToDTO(propertyRepository.save(p)); listingEvent(ListingEvent.Kind.REJECTED, dto); return dto;
     }
-    @Transactional public void adminDeleteProperty(Long id) { propertyRepository.deleteById(id); }
+    @Transactional public void adminDeleteProperty(Long id) { purgeProperty(id); }
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+package com.realestate.service;
+
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import com.realestate.model.SavedSearch;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index over the saved-search predicates, so a newly approved listing is matched
+ * against all of them without running a query per search.
+ *
+ * Each search occupies a slot. Equality criteria (district, city, type, listing type) are
+ * inverted lists: a bitset of slots per value plus one of slots that don't constrain that
+ * field. Price ranges are indexed over fixed geometric price buckets: a slot is in a bucket's
+ * "full" set when its range covers the whole bucket and in its "partial" set when a range end
+ * falls inside it, so only partial slots need their bounds compared. Candidates are the AND
+ * of those sets; bedrooms and the keyword are then checked on the survivors.
+ *
+ * District and city compare exactly, as findByFilters does (the (status, district, ...)
+ * index depends on it); SavedSearchService trims them and drops blanks on save. The keyword
+ * is case-insensitive, as in searchProperties.
+ */
+@Component
+public class SavedSearchMatcher {
+
+    // Bucket edges from 1,000 to 10,000,000,000 (the column's precision), ~30% apart
+    private static final double[] PRICE_EDGES = new double[64];
+    static {
+        double ratio = Math.pow(1e10 / 1e3, 1.0 / (PRICE_EDGES.length - 1));
+        for (int i = 0; i < PRICE_EDGES.length; i++) {
+            PRICE_EDGES[i] = 1e3 * Math.pow(ratio, i);
+        }
+    }
+
+    public record Match(long savedSearchId, long userId) {}
+
+    private record Entry(long id, long userId, String district, String city,
+                         Property.PropertyType type, Property.ListingType listingType,
+                         BigDecimal minPrice, BigDecimal maxPrice, Integer minBedrooms, String keyword) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> slots = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> slotBySearch = new HashMap<>();
+
+    private final Map<String, BitSet> byDistrict = new HashMap<>();
+    private final BitSet anyDistrict = new BitSet();
+    private final Map<String, BitSet> byCity = new HashMap<>();
+    private final BitSet anyCity = new BitSet();
+    private final Map<Property.PropertyType, BitSet> byType = new EnumMap<>(Property.PropertyType.class);
+    private final BitSet anyType = new BitSet();
+    private final Map<Property.ListingType, BitSet> byListingType = new EnumMap<>(Property.ListingType.class);
+    private final BitSet anyListingType = new BitSet();
+
+    // One more bucket than edges: bucket 0 is below the first edge
+    private final BitSet[] priceFull = newBitSets(PRICE_EDGES.length + 1);
+    private final BitSet[] pricePartial = newBitSets(PRICE_EDGES.length + 1);
+
+    /** Adds the search, or replaces it if it is already indexed. */
+    public void put(SavedSearch search) {
+        Entry entry = new Entry(search.getId(), search.getUser().getId(),
+                search.getDistrict(), search.getCity(),
+                search.getType(), search.getListingType(),
+                search.getMinPrice(), search.getMaxPrice(), search.getMinBedrooms(),
+                search.getKeyword() == null ? null : search.getKeyword().toLowerCase());
+        lock.writeLock().lock();
+        try {
+            removeLocked(entry.id());
+            int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+            if (slot == slots.size()) {
+                slots.add(entry);
+            } else {
+                slots.set(slot, entry);
+            }
+            slotBySearch.put(entry.id(), slot);
+
+            bitSet(byDistrict, anyDistrict, entry.district()).set(slot);
+            bitSet(byCity, anyCity, entry.city()).set(slot);
+            bitSet(byType, anyType, entry.type()).set(slot);
+            bitSet(byListingType, anyListingType, entry.listingType()).set(slot);
+
+            int low = entry.minPrice() == null ? 0 : bucketOf(entry.minPrice());
+            int high = entry.maxPrice() == null ? priceFull.length - 1 : bucketOf(entry.maxPrice());
+            for (int b = low; b <= high; b++) {
+                boolean cutBelow = b == low && entry.minPrice() != null;
+                boolean cutAbove = b == high && entry.maxPrice() != null;
+                (cutBelow || cutAbove ? pricePartial[b] : priceFull[b]).set(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long savedSearchId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(savedSearchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes indexed searches up to maxId that aren't in the given set; newer ones are left alone. */
+    public void retainOnly(Set<Long> savedSearchIds, long maxId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = slotBySearch.keySet().stream()
+                    .filter(id -> id <= maxId && !savedSearchIds.contains(id))
+                    .toList();
+            stale.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotBySearch.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Saved searches the listing satisfies: what findByFilters would return for the search, narrowed by its keyword. */
+    public List<Match> match(PropertyDTO property) {
+        List<Match> matches = new ArrayList<>();
+        if (property.getPrice() == null) {
+            return matches;
+        }
+        String title = lower(property.getTitle());
+        String description = lower(property.getDescription());
+        String address = lower(property.getAddress());
+        int bucket = bucketOf(property.getPrice());
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = union(property.getDistrict() == null ? null : byDistrict.get(property.getDistrict()), anyDistrict);
+            candidates.and(union(property.getCity() == null ? null : byCity.get(property.getCity()), anyCity));
+            candidates.and(union(byType.get(property.getType()), anyType));
+            candidates.and(union(byListingType.get(property.getListingType()), anyListingType));
+            candidates.and(union(priceFull[bucket], pricePartial[bucket]));
+
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                Entry entry = slots.get(slot);
+                if (pricePartial[bucket].get(slot) && !inPriceRange(entry, property.getPrice())) {
+                    continue;
+                }
+                if (entry.minBedrooms() != null
+                        && (property.getBedrooms() == null || property.getBedrooms() < entry.minBedrooms())) {
+                    continue;
+                }
+                if (entry.keyword() != null && !title.contains(entry.keyword())
+                        && !description.contains(entry.keyword()) && !address.contains(entry.keyword())) {
+                    continue;
+                }
+                matches.add(new Match(entry.id(), entry.userId()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void removeLocked(long savedSearchId) {
+        Integer slot = slotBySearch.remove(savedSearchId);
+        if (slot == null) {
+            return;
+        }
+        Entry entry = slots.get(slot);
+        bitSet(byDistrict, anyDistrict, entry.district()).clear(slot);
+        bitSet(byCity, anyCity, entry.city()).clear(slot);
+        bitSet(byType, anyType, entry.type()).clear(slot);
+        bitSet(byListingType, anyListingType, entry.listingType()).clear(slot);
+        for (int b = 0; b < priceFull.length; b++) {
+            priceFull[b].clear(slot);
+            pricePartial[b].clear(slot);
+        }
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static boolean inPriceRange(Entry entry, BigDecimal price) {
+        return (entry.minPrice() == null || price.compareTo(entry.minPrice()) >= 0)
+                && (entry.maxPrice() == null || price.compareTo(entry.maxPrice()) <= 0);
+    }
+
+    // Monotonic in price, which is what makes "full" buckets safe to accept unchecked
+    private static int bucketOf(BigDecimal price) {
+        int i = Arrays.binarySearch(PRICE_EDGES, price.doubleValue());
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private static <K> BitSet bitSet(Map<K, BitSet> index, BitSet any, K key) {
+        return key == null ? any : index.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static BitSet union(BitSet values, BitSet any) {
+        BitSet result = (BitSet) any.clone();
+        if (values != null) {
+            result.or(values);
+        }
+        return result;
+    }
+
+    private static BitSet[] newBitSets(int n) {
+        BitSet[] sets = new BitSet[n];
+        for (int i = 0; i < n; i++) {
+            sets[i] = new BitSet();
+        }
+        return sets;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+}
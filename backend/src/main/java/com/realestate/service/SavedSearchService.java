@@ -0,0 +1,283 @@
+package com.realestate.service;
+
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.SavedSearchAlertDTO;
+import com.realestate.dto.SavedSearchDTO;
+import com.realestate.model.SavedSearch;
+import com.realestate.model.SavedSearchAlert;
+import com.realestate.model.User;
+import com.realestate.repository.SavedSearchAlertRepository;
+import com.realestate.repository.SavedSearchRepository;
+import com.realestate.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Saved searches and their alerts. Every node keeps all searches in a SavedSearchMatcher;
+ * when a listing is approved the matches are queued in memory and written to
+ * saved_search_alerts in JDBC batches every app.saved-search.flush-ms, so a listing that
+ * matches many searches never holds up the approval. Create/delete reach the other nodes'
+ * matchers through the cache invalidation bus.
+ */
+@Service
+public class SavedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchService.class);
+
+    private static final String INSERT_ALERT =
+            "INSERT INTO saved_search_alerts (user_id, saved_search_id, property_id, created_at) VALUES (?, ?, ?, ?) " +
+            // A redelivered approval finds its alerts already written
+            "ON CONFLICT DO NOTHING";
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchAlertRepository savedSearchAlertRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchMatcher matcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.saved-search.max-per-user:20}")
+    private int maxPerUser;
+
+    @Value("${app.saved-search.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.saved-search.max-pending:200000}")
+    private int maxPending;
+
+    @Value("${app.saved-search.load-page-size:5000}")
+    private int loadPageSize;
+
+    private final ConcurrentLinkedQueue<Object[]> pendingAlerts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("saved_search.indexed", matcher, SavedSearchMatcher::size);
+        meterRegistry.gauge("saved_search.alerts.pending", pendingCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMatcher() {
+        long start = System.nanoTime();
+        Set<Long> seen = new HashSet<>();
+        long afterId = 0;
+        List<SavedSearch> page;
+        do {
+            page = savedSearchRepository.findPageAfter(afterId, PageRequest.of(0, loadPageSize));
+            for (SavedSearch search : page) {
+                matcher.put(search);
+                seen.add(search.getId());
+                afterId = search.getId();
+            }
+        } while (page.size() == loadPageSize);
+        // Drop anything deleted while this node wasn't listening
+        matcher.retainOnly(seen, afterId);
+        logger.info("Indexed {} saved searches in {} ms", seen.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** Re-reads one search into the matcher after another node created or deleted it. */
+    @Transactional
+    public void reload(long savedSearchId) {
+        savedSearchRepository.findById(savedSearchId)
+                .ifPresentOrElse(matcher::put, () -> matcher.remove(savedSearchId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> getUserSearches(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return savedSearchRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public SavedSearchDTO createSearch(SavedSearchDTO dto, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (savedSearchRepository.countByUserId(user.getId()) >= maxPerUser) {
+            throw new RuntimeException("You can keep at most " + maxPerUser + " saved searches");
+        }
+        if (dto.getMinPrice() != null && dto.getMaxPrice() != null && dto.getMinPrice().compareTo(dto.getMaxPrice()) > 0) {
+            throw new RuntimeException("Minimum price is above maximum price");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setUser(user);
+        search.setName(dto.getName());
+        search.setType(dto.getType());
+        search.setListingType(dto.getListingType());
+        // Stored as findByFilters would be given them, which is how the matcher compares
+        search.setDistrict(trimToNull(dto.getDistrict()));
+        search.setCity(trimToNull(dto.getCity()));
+        search.setMinPrice(dto.getMinPrice());
+        search.setMaxPrice(dto.getMaxPrice());
+        search.setMinBedrooms(dto.getMinBedrooms());
+        search.setKeyword(trimToNull(dto.getKeyword()));
+        SavedSearch saved = savedSearchRepository.save(search);
+
+        afterCommit(() -> matcher.put(saved));
+        eventPublisher.publishEvent(EntityChangeEvent.savedSearch(saved.getId()));
+        return convertToDTO(saved);
+    }
+
+    @Transactional
+    public void deleteSearch(Long id, String username) {
+        SavedSearch search = savedSearchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Saved search not found"));
+        if (!search.getUser().getUsername().equals(username)) {
+            throw new RuntimeException("Not authorized to delete this saved search");
+        }
+        savedSearchRepository.delete(search);
+        afterCommit(() -> matcher.remove(id));
+        eventPublisher.publishEvent(EntityChangeEvent.savedSearch(id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchAlertDTO> getUserAlerts(String username, int limit) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return savedSearchAlertRepository.findByUserIdOrderByCreatedAtDesc(user.getId(), PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // After commit, so a rolled-back approval raises nothing
+    @TransactionalEventListener
+    public void onListingApproved(ListingApprovedEvent event) {
+        PropertyDTO property = event.property();
+        List<SavedSearchMatcher.Match> matches = meterRegistry.timer("saved_search.match")
+                .record(() -> matcher.match(property));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int queued = 0;
+        for (SavedSearchMatcher.Match match : matches) {
+            // No alert for your own listing
+            if (property.getOwnerId() != null && match.userId() == property.getOwnerId()) {
+                continue;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                meterRegistry.counter("saved_search.alerts.dropped").increment(matches.size() - queued);
+                logger.warn("Alert queue full, dropped alerts for property {}", property.getId());
+                break;
+            }
+            pendingAlerts.add(new Object[]{match.userId(), match.savedSearchId(), property.getId(), now});
+            queued++;
+        }
+        meterRegistry.counter("saved_search.alerts.queued").increment(queued);
+    }
+
+    @Scheduled(fixedDelayString = "${app.saved-search.flush-ms:500}")
+    public void flushAlerts() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        Object[] row;
+        while ((row = pendingAlerts.poll()) != null) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                writeAlerts(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeAlerts(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAlerts();
+    }
+
+    private void writeAlerts(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_ALERT, batch);
+            meterRegistry.counter("saved_search.alerts.written").increment(batch.size());
+        } catch (RuntimeException e) {
+            meterRegistry.counter("saved_search.alerts.dropped").increment(batch.size());
+            logger.error("Failed to write {} saved-search alerts", batch.size(), e);
+        } finally {
+            pendingCount.addAndGet(-batch.size());
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private SavedSearchDTO convertToDTO(SavedSearch search) {
+        SavedSearchDTO dto = new SavedSearchDTO();
+        dto.setId(search.getId());
+        dto.setName(search.getName());
+        dto.setType(search.getType());
+        dto.setListingType(search.getListingType());
+        dto.setDistrict(search.getDistrict());
+        dto.setCity(search.getCity());
+        dto.setMinPrice(search.getMinPrice());
+        dto.setMaxPrice(search.getMaxPrice());
+        dto.setMinBedrooms(search.getMinBedrooms());
+        dto.setKeyword(search.getKeyword());
+        dto.setCreatedAt(search.getCreatedAt());
+        return dto;
+    }
+
+    private SavedSearchAlertDTO convertToDTO(SavedSearchAlert alert) {
+        SavedSearchAlertDTO dto = new SavedSearchAlertDTO();
+        dto.setId(alert.getId());
+        dto.setSavedSearchId(alert.getSavedSearchId());
+        dto.setPropertyId(alert.getPropertyId());
+        dto.setCreatedAt(alert.getCreatedAt());
+        return dto;
+    }
+}
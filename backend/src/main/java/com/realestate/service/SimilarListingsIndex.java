@@ -0,0 +1,371 @@
+package com.realestate.service;
+
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertyRepository.SimilaritySource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * k-nearest-neighbour index behind "similar listings".
+ *
+ * Each APPROVED listing is a point: log price, bedrooms, bathrooms, log floor size and log
+ * land size, each standardized (mean and spread of its sale or rent kind, measured at the last
+ * rebuild) and weighted. Distance is the squared euclidean distance of those plus
+ * app.similar.type-weight / app.similar.district-weight when the property type / district
+ * differ, which is what one-hot encoding them would give. Sale and rent listings are never
+ * compared.
+ *
+ * Points are kept in float arrays, one cell per listing kind, type and district. A query scans
+ * cells in order of their penalty and skips every cell whose penalty alone is already worse
+ * than the k-th best so far, so it usually only reads its own cell; within a cell a point is
+ * dropped as soon as its partial distance passes the k-th best.
+ *
+ * Changes are applied every app.similar.refresh-ms from local and cache-bus PROPERTY events,
+ * scaled with the means and spreads of the last rebuild. A rebuild measures them again once
+ * the listings changed since pass app.similar.max-stale-ratio of the index.
+ */
+@Component
+public class SimilarListingsIndex extends IncrementalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarListingsIndex.class);
+
+    private static final int DIMS = 5;
+    // Relative importance of log price, bedrooms, bathrooms, log floor size and log land size
+    private static final float[] WEIGHTS = {2f, 1f, 0.5f, 1f, 0.5f};
+    private static final int REFRESH_BATCH = 500;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.similar.type-weight:4}")
+    private float typeWeight;
+
+    @Value("${app.similar.district-weight:2}")
+    private float districtWeight;
+
+    @Value("${app.similar.load-page-size:5000}")
+    private int loadPageSize;
+
+    @Value("${app.similar.max-stale-ratio:0.1}")
+    private double maxStaleRatio;
+
+    private volatile State state = new State();
+
+    private Timer queryTimer;
+
+    public SimilarListingsIndex() {
+        super(EntityChangeEvent.Type.PROPERTY);
+    }
+
+    @PostConstruct
+    public void init() {
+        queryTimer = meterRegistry.timer("similar.query");
+        meterRegistry.gauge("similar.indexed", this, index -> index.state.locations.size());
+    }
+
+    /** The k listings closest to an indexed one, closest first; empty if it isn't indexed (not approved). */
+    public Optional<List<Long>> nearest(long propertyId, int k) {
+        return queryTimer.record(() -> {
+            State current = state;
+            current.lock.readLock().lock();
+            try {
+                Location location = current.locations.get(propertyId);
+                if (location == null) {
+                    return Optional.empty();
+                }
+                Cell cell = location.cell();
+                float[] point = Arrays.copyOfRange(cell.vectors, location.slot() * DIMS, location.slot() * DIMS + DIMS);
+                return Optional.of(current.nearest(cell.listingType, cell.type, cell.district, point, propertyId, k));
+            } finally {
+                current.lock.readLock().unlock();
+            }
+        });
+    }
+
+    /** The k approved listings closest to one that isn't in the index, e.g. while it awaits approval. */
+    public List<Long> nearest(Property property, int k) {
+        return queryTimer.record(() -> {
+            State current = state;
+            current.lock.readLock().lock();
+            try {
+                Scale scale = current.scales.get(property.getListingType());
+                if (scale == null) {
+                    return List.of();
+                }
+                float[] point = scale.apply(raw(property.getPrice(), property.getBedrooms(), property.getBathrooms(),
+                        property.getFloorSize(), property.getLandSize()));
+                return current.nearest(property.getListingType(), property.getType().ordinal(),
+                        current.districtCodes.getOrDefault(district(property.getDistrict()), -1), point, property.getId(), k);
+            } finally {
+                current.lock.readLock().unlock();
+            }
+        });
+    }
+
+    public void listingChanged(long propertyId) {
+        changed(propertyId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.similar.refresh-ms:1000}")
+    public void refresh() {
+        super.refresh();
+    }
+
+    @Override
+    protected void apply(List<Long> ids) {
+        State current = state;
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH, ids.size()));
+            List<SimilaritySource> approved = propertyRepository.findSimilaritySourcesByIdIn(Property.PropertyStatus.APPROVED, batch);
+            current.lock.writeLock().lock();
+            try {
+                // Removed first: a changed type, district or sale/rent kind moves the listing to another cell
+                batch.forEach(current::remove);
+                for (SimilaritySource source : approved) {
+                    current.put(source, true);
+                }
+            } finally {
+                current.lock.writeLock().unlock();
+            }
+        }
+        current.stale += ids.size();
+        if (current.stale > maxStaleRatio * Math.max(current.locations.size(), 1000)) {
+            requestRebuild();
+        }
+    }
+
+    @Override
+    protected void rebuild() {
+        long start = System.nanoTime();
+        State fresh = new State();
+        long afterId = 0;
+        List<SimilaritySource> page;
+        do {
+            page = propertyRepository.findSimilaritySources(Property.PropertyStatus.APPROVED, afterId, PageRequest.of(0, loadPageSize));
+            for (SimilaritySource source : page) {
+                // Raw values for now: the scale is only known once everything is loaded
+                fresh.put(source, false);
+                afterId = source.getId();
+            }
+        } while (page.size() == loadPageSize);
+        fresh.standardize();
+        state = fresh;
+        logger.info("Indexed {} listings for similarity in {} cells in {} ms", fresh.locations.size(), fresh.cells.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Missing values are NaN until standardized, then sit at the mean
+    private static float[] raw(BigDecimal price, Integer bedrooms, Integer bathrooms, BigDecimal floorSize, BigDecimal landSize) {
+        return new float[]{
+                price == null ? Float.NaN : (float) Math.log(Math.max(price.doubleValue(), 1)),
+                bedrooms == null ? Float.NaN : bedrooms,
+                bathrooms == null ? Float.NaN : bathrooms,
+                floorSize == null ? Float.NaN : (float) Math.log1p(floorSize.doubleValue()),
+                landSize == null ? Float.NaN : (float) Math.log1p(landSize.doubleValue())
+        };
+    }
+
+    private static String district(String district) {
+        return district == null ? "" : district.trim().toLowerCase();
+    }
+
+    private record Location(Cell cell, int slot) {}
+
+    private final class State {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Cell> cells = new HashMap<>();
+        private final Map<Long, Location> locations = new HashMap<>();
+        private final Map<Property.ListingType, Scale> scales = new EnumMap<>(Property.ListingType.class);
+        private final Map<String, Integer> districtCodes = new HashMap<>();
+        // Listings re-added since the scales were measured
+        private int stale;
+
+        void put(SimilaritySource source, boolean scaled) {
+            float[] point = raw(source.getPrice(), source.getBedrooms(), source.getBathrooms(), source.getFloorSize(), source.getLandSize());
+            Scale scale = scales.computeIfAbsent(source.getListingType(), t -> new Scale());
+            int district = districtCodes.computeIfAbsent(district(source.getDistrict()), d -> districtCodes.size());
+            Cell cell = cells.computeIfAbsent(cellKey(source.getListingType(), source.getType().ordinal(), district),
+                    key -> new Cell(source.getListingType(), source.getType().ordinal(), district));
+            locations.put(source.getId(), new Location(cell, cell.add(source.getId(), scaled ? scale.apply(point) : point)));
+        }
+
+        void remove(long propertyId) {
+            Location location = locations.remove(propertyId);
+            if (location != null) {
+                location.cell().remove(location.slot());
+            }
+        }
+
+        /** Measures each listing kind's mean and spread over the raw values loaded so far and rescales them in place. */
+        void standardize() {
+            scales.forEach((listingType, scale) -> {
+                List<Cell> ofKind = cells.values().stream().filter(cell -> cell.listingType == listingType).toList();
+                for (int d = 0; d < DIMS; d++) {
+                    double sum = 0;
+                    double sumOfSquares = 0;
+                    int count = 0;
+                    for (Cell cell : ofKind) {
+                        for (int slot = 0; slot < cell.used; slot++) {
+                            float value = cell.vectors[slot * DIMS + d];
+                            if (cell.ids[slot] >= 0 && !Float.isNaN(value)) {
+                                sum += value;
+                                sumOfSquares += (double) value * value;
+                                count++;
+                            }
+                        }
+                    }
+                    if (count > 1) {
+                        scale.mean[d] = (float) (sum / count);
+                        double deviation = Math.sqrt(Math.max(sumOfSquares / count - (double) scale.mean[d] * scale.mean[d], 0));
+                        // A feature every listing shares (e.g. no land sizes at all) carries no information
+                        scale.factor[d] = deviation > 1e-6 ? (float) (WEIGHTS[d] / deviation) : 0;
+                    }
+                }
+                float[] raw = new float[DIMS];
+                for (Cell cell : ofKind) {
+                    for (int slot = 0; slot < cell.used; slot++) {
+                        System.arraycopy(cell.vectors, slot * DIMS, raw, 0, DIMS);
+                        System.arraycopy(scale.apply(raw), 0, cell.vectors, slot * DIMS, DIMS);
+                    }
+                }
+            });
+        }
+
+        List<Long> nearest(Property.ListingType listingType, int type, int district, float[] point, long excluded, int k) {
+            record Visit(Cell cell, float penalty) {}
+            List<Visit> visits = new ArrayList<>();
+            for (Cell cell : cells.values()) {
+                if (cell.listingType == listingType) {
+                    visits.add(new Visit(cell, (cell.type == type ? 0 : typeWeight) + (cell.district == district ? 0 : districtWeight)));
+                }
+            }
+            visits.sort(Comparator.comparingDouble(Visit::penalty));
+
+            long[] bestIds = new long[k];
+            float[] bestDistances = new float[k];
+            Arrays.fill(bestDistances, Float.POSITIVE_INFINITY);
+            int found = 0;
+            for (Visit visit : visits) {
+                if (visit.penalty() >= bestDistances[k - 1]) {
+                    // Sorted by penalty, so no later cell can do better either
+                    break;
+                }
+                Cell cell = visit.cell();
+                for (int slot = 0; slot < cell.used; slot++) {
+                    long id = cell.ids[slot];
+                    if (id < 0 || id == excluded) {
+                        continue;
+                    }
+                    float worst = bestDistances[k - 1];
+                    float distance = visit.penalty();
+                    int offset = slot * DIMS;
+                    for (int d = 0; d < DIMS && distance < worst; d++) {
+                        float diff = cell.vectors[offset + d] - point[d];
+                        distance += diff * diff;
+                    }
+                    if (distance >= worst) {
+                        continue;
+                    }
+                    // Insertion into the sorted top k
+                    int at = Math.min(found, k - 1);
+                    while (at > 0 && bestDistances[at - 1] > distance) {
+                        bestDistances[at] = bestDistances[at - 1];
+                        bestIds[at] = bestIds[at - 1];
+                        at--;
+                    }
+                    bestDistances[at] = distance;
+                    bestIds[at] = id;
+                    found = Math.min(found + 1, k);
+                }
+            }
+            List<Long> result = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                result.add(bestIds[i]);
+            }
+            return result;
+        }
+
+        private static long cellKey(Property.ListingType listingType, int type, int district) {
+            return ((long) listingType.ordinal() << 48) | ((long) type << 32) | district;
+        }
+    }
+
+    /** Standardization of one listing kind: (value - mean) * factor, with factor = weight / standard deviation. */
+    private static final class Scale {
+        private final float[] mean = new float[DIMS];
+        private final float[] factor = WEIGHTS.clone();
+
+        float[] apply(float[] raw) {
+            float[] point = new float[DIMS];
+            for (int d = 0; d < DIMS; d++) {
+                point[d] = Float.isNaN(raw[d]) ? 0 : (raw[d] - mean[d]) * factor[d];
+            }
+            return point;
+        }
+    }
+
+    private static final class Cell {
+        private final Property.ListingType listingType;
+        private final int type;
+        private final int district;
+        private float[] vectors = new float[DIMS * 16];
+        private long[] ids = new long[16];
+        private int used;
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+        Cell(Property.ListingType listingType, int type, int district) {
+            this.listingType = listingType;
+            this.type = type;
+            this.district = district;
+        }
+
+        int add(long propertyId, float[] point) {
+            int slot;
+            if (!freeSlots.isEmpty()) {
+                slot = freeSlots.pop();
+            } else {
+                if (used == ids.length) {
+                    vectors = Arrays.copyOf(vectors, ids.length * 2 * DIMS);
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                }
+                slot = used++;
+            }
+            System.arraycopy(point, 0, vectors, slot * DIMS, DIMS);
+            ids[slot] = propertyId;
+            return slot;
+        }
+
+        void remove(int slot) {
+            ids[slot] = -1;
+            freeSlots.push(slot);
+        }
+    }
+}
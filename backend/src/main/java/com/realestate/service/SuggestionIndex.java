@@ -0,0 +1,359 @@
+package com.realestate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.cache.EntityChangeEvent;
+import com.realestate.dto.SuggestionDTO;
+import com.realestate.model.Property;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertyRepository.SuggestionSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead over the cities, districts and title words of APPROVED listings.
+ *
+ * Terms live in a sorted map keyed by their normalized text, so a prefix is a contiguous
+ * range. The top suggestions for each short prefix are memoized, with as many again in
+ * reserve, and updated in place when a term's weight changes; a prefix's range is only
+ * scanned again once too few of its memoized terms still outrank everything it left out.
+ * A suggestion's weight is the number of approved listings carrying it plus the number of
+ * times it has been searched or filtered on.
+ *
+ * Changes are applied in the background every app.suggest.refresh-ms: listings touched
+ * since the last run (here or, via the cache invalidation bus, on another instance) are
+ * re-read and their old terms swapped for the new ones.
+ */
+@Component
+public class SuggestionIndex extends IncrementalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "near", "from", "into");
+    private static final int REFRESH_BATCH = 500;
+    private static final Comparator<Term> BEST_FIRST = Comparator.comparing(Term::rank).reversed();
+
+    public enum Type { CITY, DISTRICT, TITLE }
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${app.suggest.cached-prefix-length:12}")
+    private int cachedPrefixLength;
+
+    @Value("${app.suggest.cached-prefixes:20000}")
+    private long cachedPrefixes;
+
+    @Value("${app.suggest.load-page-size:5000}")
+    private int loadPageSize;
+
+    private volatile State state = new State();
+    private final Map<String, AtomicLong> pendingSearches = new ConcurrentHashMap<>();
+
+    private Cache<String, Memo> prefixCache;
+
+    public SuggestionIndex() {
+        super(EntityChangeEvent.Type.PROPERTY);
+    }
+
+    @PostConstruct
+    public void init() {
+        prefixCache = Caffeine.newBuilder().maximumSize(cachedPrefixes).build();
+        meterRegistry.gauge("suggest.terms", this, index -> index.state.terms.size());
+    }
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        List<SuggestionDTO> top = prefix.length() <= cachedPrefixLength
+                ? prefixCache.get(prefix, p -> scan(p, 2 * maxResults)).top
+                : scan(prefix, maxResults).top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    /** Counts a search or filter value towards the popularity of a matching suggestion. */
+    public void recordSearch(String text) {
+        String normalized = normalize(text);
+        // Bounded so junk queries can't grow the map between refreshes
+        if (!normalized.isEmpty() && pendingSearches.size() < 10_000) {
+            pendingSearches.computeIfAbsent(normalized, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public void listingChanged(long propertyId) {
+        changed(propertyId);
+    }
+
+    // Search counts are applied on the same refresh, after any listing changes
+    @Override
+    @Scheduled(fixedDelayString = "${app.suggest.refresh-ms:1000}")
+    public synchronized void refresh() {
+        super.refresh();
+        if (pendingSearches.isEmpty()) {
+            return;
+        }
+        Set<Term> touched = new HashSet<>();
+        Iterator<Map.Entry<String, AtomicLong>> it = pendingSearches.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, AtomicLong> entry = it.next();
+            it.remove();
+            for (Type type : Type.values()) {
+                Term term = state.terms.get(key(entry.getKey(), type));
+                if (term != null) {
+                    term.searches += entry.getValue().get();
+                    touched.add(term);
+                }
+            }
+        }
+        updatePrefixes(touched);
+    }
+
+    @Override
+    protected void apply(List<Long> ids) {
+        Set<Term> touched = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH, ids.size()));
+            Map<Long, SuggestionSource> approved = propertyRepository
+                    .findSuggestionSourcesByIdIn(Property.PropertyStatus.APPROVED, batch).stream()
+                    .collect(Collectors.toMap(SuggestionSource::getId, source -> source));
+            for (Long id : batch) {
+                state.replace(id, approved.get(id), touched);
+            }
+        }
+        updatePrefixes(touched);
+    }
+
+    // Drops terms no listing carries any more and re-ranks every changed term in its memoized prefixes
+    private void updatePrefixes(Set<Term> touched) {
+        for (Term term : touched) {
+            if (term.listings <= 0) {
+                state.terms.remove(term.key);
+            }
+            String text = normalize(term.text);
+            for (int length = 1; length <= Math.min(text.length(), cachedPrefixLength); length++) {
+                String prefix = text.substring(0, length);
+                Memo memo = prefixCache.getIfPresent(prefix);
+                if (memo != null && !memo.update(term)) {
+                    prefixCache.invalidate(prefix);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void rebuild() {
+        long start = System.nanoTime();
+        State fresh = new State();
+        long afterId = 0;
+        List<SuggestionSource> page;
+        do {
+            page = propertyRepository.findSuggestionSources(Property.PropertyStatus.APPROVED, afterId, PageRequest.of(0, loadPageSize));
+            for (SuggestionSource source : page) {
+                fresh.replace(source.getId(), source, null);
+                afterId = source.getId();
+            }
+        } while (page.size() == loadPageSize);
+        // Popularity isn't in the database, so carry it over
+        for (Term term : fresh.terms.values()) {
+            Term previous = state.terms.get(term.key);
+            if (previous != null) {
+                term.searches = previous.searches;
+            }
+        }
+        state = fresh;
+        prefixCache.invalidateAll();
+        logger.info("Indexed {} suggestion terms from {} listings in {} ms", fresh.terms.size(), fresh.contributions.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // The best capacity terms under the prefix, and the best of those it had to leave out
+    private Memo scan(String prefix, int capacity) {
+        PriorityQueue<Term> best = new PriorityQueue<>(capacity + 1, Comparator.comparing(Term::rank));
+        Rank bound = null;
+        for (Term term : state.terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            if (term.listings <= 0) {
+                continue;
+            }
+            best.add(term);
+            if (best.size() > capacity) {
+                Rank dropped = best.poll().rank();
+                if (bound == null || dropped.compareTo(bound) > 0) {
+                    bound = dropped;
+                }
+            }
+        }
+        List<Term> ordered = new ArrayList<>(best);
+        ordered.sort(BEST_FIRST);
+        return new Memo(ordered, capacity, bound);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    // Same text can be both a city and a district; the type keeps them apart but sorts after the text
+    private static String key(String normalizedText, Type type) {
+        return normalizedText + '\u0000' + type.ordinal();
+    }
+
+    /** Order of suggestions: heavier first, then alphabetical. */
+    private record Rank(long weight, String text) implements Comparable<Rank> {
+        @Override
+        public int compareTo(Rank other) {
+            int byWeight = Long.compare(weight, other.weight);
+            return byWeight != 0 ? byWeight : other.text.compareTo(text);
+        }
+    }
+
+    /**
+     * Memoized top terms of one prefix, best first. Every matching term it doesn't hold ranks
+     * at or below bound (null when it holds them all), so the first maxResults are the answer
+     * for as long as that many of them rank above it. Changed only by the refresh thread.
+     */
+    private final class Memo {
+        private final List<Term> terms;
+        private final int capacity;
+        private Rank bound;
+        private volatile List<SuggestionDTO> top;
+
+        Memo(List<Term> terms, int capacity, Rank bound) {
+            this.terms = terms;
+            this.capacity = capacity;
+            this.bound = bound;
+            render();
+        }
+
+        /** Re-ranks a changed term; false if too few terms are left to answer from. */
+        boolean update(Term term) {
+            terms.remove(term);
+            if (term.listings > 0 && (bound == null || term.rank().compareTo(bound) > 0)) {
+                terms.add(term);
+            }
+            terms.sort(BEST_FIRST);
+            // Can't be ordered against the terms left out any more, so it joins them
+            while (bound != null && !terms.isEmpty() && terms.get(terms.size() - 1).rank().compareTo(bound) <= 0) {
+                terms.remove(terms.size() - 1);
+            }
+            while (terms.size() > capacity) {
+                Rank dropped = terms.remove(terms.size() - 1).rank();
+                if (bound == null || dropped.compareTo(bound) > 0) {
+                    bound = dropped;
+                }
+            }
+            if (bound != null && terms.size() < maxResults) {
+                return false;
+            }
+            render();
+            return true;
+        }
+
+        private void render() {
+            top = terms.stream()
+                    .limit(maxResults)
+                    .map(term -> new SuggestionDTO(term.text, term.type.name(), term.listings))
+                    .toList();
+        }
+    }
+
+    private static final class Term {
+        private final String key;
+        private final String text;
+        private final Type type;
+        // Written only by the refresh thread
+        private volatile long listings;
+        private volatile long searches;
+
+        Term(String key, String text, Type type) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+        }
+
+        Rank rank() {
+            return new Rank(listings + searches, text);
+        }
+    }
+
+    private static final class State {
+        private final ConcurrentSkipListMap<String, Term> terms = new ConcurrentSkipListMap<>();
+        // The terms each approved listing currently counts towards
+        private final Map<Long, Term[]> contributions = new HashMap<>();
+
+        /** Swaps the listing's terms for those of source (null when it is no longer approved). */
+        void replace(long propertyId, SuggestionSource source, Set<Term> touched) {
+            Term[] previous = contributions.remove(propertyId);
+            if (previous != null) {
+                for (Term term : previous) {
+                    term.listings--;
+                    if (touched != null) {
+                        touched.add(term);
+                    }
+                }
+            }
+            if (source == null) {
+                return;
+            }
+            Set<Term> current = new LinkedHashSet<>();
+            add(current, source.getCity(), Type.CITY);
+            add(current, source.getDistrict(), Type.DISTRICT);
+            if (source.getTitle() != null) {
+                // A title word naming the listing's own town would just duplicate that suggestion
+                Set<String> placeWords = WORD_SEPARATORS.splitAsStream(normalize(source.getCity()) + " " + normalize(source.getDistrict()))
+                        .collect(Collectors.toSet());
+                for (String word : WORD_SEPARATORS.split(source.getTitle().toLowerCase())) {
+                    if (word.length() >= 3 && !STOP_WORDS.contains(word) && !word.chars().allMatch(Character::isDigit)
+                            && !placeWords.contains(word)) {
+                        add(current, word, Type.TITLE);
+                    }
+                }
+            }
+            for (Term term : current) {
+                term.listings++;
+                if (touched != null) {
+                    touched.add(term);
+                }
+            }
+            contributions.put(propertyId, current.toArray(new Term[0]));
+        }
+
+        private void add(Set<Term> current, String text, Type type) {
+            String normalized = normalize(text);
+            if (!normalized.isEmpty()) {
+                current.add(terms.computeIfAbsent(key(normalized, type), k -> new Term(k, text.trim(), type)));
+            }
+        }
+    }
+}
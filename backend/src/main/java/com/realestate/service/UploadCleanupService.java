@@ -0,0 +1,112 @@
+package com.realestate.service;
+
+import com.realestate.repository.ArchivedPropertyImageRepository;
+import com.realestate.repository.PropertyImageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reconciles the upload directory against PropertyImage.imageUrl (live and archived) and
+ * deletes files no row points at any more (deleted listings, failed uploads).
+ */
+@Service
+public class UploadCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadCleanupService.class);
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private ArchivedPropertyImageRepository archivedPropertyImageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.upload-dir:uploads/}")
+    private String uploadDir;
+
+    @Value("${app.uploads.gc.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.uploads.gc.batch-pause-ms:500}")
+    private long batchPauseMs;
+
+    // Files younger than this may belong to an upload whose transaction hasn't committed yet
+    @Value("${app.uploads.gc.min-age-minutes:60}")
+    private long minAgeMinutes;
+
+    @Scheduled(initialDelayString = "${app.uploads.gc.initial-delay-ms:300000}",
+               fixedDelayString = "${app.uploads.gc.interval-ms:3600000}")
+    public void collectOrphanedUploads() {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.isDirectory(uploadPath)) {
+            return;
+        }
+
+        // Snapshot references before listing so anything uploaded afterwards is protected by the age cutoff
+        Set<String> referenced = referencedFileNames();
+        Instant cutoff = Instant.now().minus(minAgeMinutes, ChronoUnit.MINUTES);
+
+        long deletedFiles = 0;
+        long reclaimedBytes = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath)) {
+            for (Path file : files) {
+                if (referenced.contains(file.getFileName().toString())) continue;
+
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attrs.isRegularFile() || attrs.lastModifiedTime().toInstant().isAfter(cutoff)) continue;
+
+                if (Files.deleteIfExists(file)) {
+                    deletedFiles++;
+                    reclaimedBytes += attrs.size();
+                    meterRegistry.counter("uploads.gc.deleted.files").increment();
+                    meterRegistry.counter("uploads.gc.reclaimed.bytes").increment(attrs.size());
+
+                    // Throttle so a large backlog doesn't saturate the disk
+                    if (deletedFiles % batchSize == 0) {
+                        Thread.sleep(batchPauseMs);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Upload cleanup failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (deletedFiles > 0) {
+            logger.info("Upload cleanup removed {} orphaned files ({} bytes)", deletedFiles, reclaimedBytes);
+        }
+    }
+
+    private Set<String> referencedFileNames() {
+        List<String> urls = new ArrayList<>(propertyImageRepository.findAllImageUrls());
+        // Read after the live table: a listing archived in between is then seen in one of the two
+        urls.addAll(archivedPropertyImageRepository.findAllImageUrls());
+        Set<String> names = new HashSet<>(urls.size() * 2);
+        for (String url : urls) {
+            names.add(url.substring(url.lastIndexOf('/') + 1));
+        }
+        return names;
+    }
+}
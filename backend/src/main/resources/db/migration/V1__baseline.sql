@@ -0,0 +1,67 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+create table users (
+    id bigserial not null,
+    username varchar(255) not null unique,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    full_name varchar(255),
+    phone varchar(255),
+    active boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table roles (
+    id bigserial not null,
+    name varchar(20) not null unique check (name in ('ROLE_USER','ROLE_ADMIN')),
+    primary key (id)
+);
+
+create table user_roles (
+    role_id bigint not null references roles,
+    user_id bigint not null references users,
+    primary key (role_id, user_id)
+);
+
+create table properties (
+    id bigserial not null,
+    title varchar(255) not null,
+    description TEXT,
+    type varchar(255) not null check (type in ('HOUSE','APARTMENT','LAND','COMMERCIAL','VILLA','CONDO')),
+    listing_type varchar(255) not null check (listing_type in ('SALE','RENT')),
+    price numeric(12,2) not null,
+    address varchar(255) not null,
+    city varchar(255) not null,
+    district varchar(255) not null,
+    bedrooms integer,
+    bathrooms integer,
+    land_size numeric(10,2),
+    floor_size numeric(10,2),
+    parking_spaces integer,
+    owner_id bigint not null references users,
+    status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED','SOLD','RENTED')),
+    featured boolean not null,
+    approved_at timestamp(6),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table property_images (
+    id bigserial not null,
+    image_url varchar(255),
+    property_id bigint references properties,
+    primary key (id)
+);
+
+create table favorites (
+    id bigserial not null,
+    user_id bigint not null references users,
+    property_id bigint not null references properties,
+    created_at timestamp(6) not null,
+    primary key (id),
+    unique (user_id, property_id)
+);
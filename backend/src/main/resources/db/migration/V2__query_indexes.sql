@@ -0,0 +1,30 @@
+-- Indexes for the repository query shapes. Built CONCURRENTLY so existing tables stay
+-- writable; Flyway runs this migration outside a transaction.
+
+-- findByStatus / findTop10ByStatusOrderByCreatedAtDesc / searchProperties (ORDER BY created_at DESC).
+-- updated_at is included so the listings version probe (COUNT, MAX(updated_at)) is index-only.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_properties_status_created
+    ON properties (status, created_at DESC) INCLUDE (updated_at);
+
+-- findByFilters: status is always bound, district and type are the common narrowing filters
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_properties_status_district_type_price
+    ON properties (status, district, type, price);
+
+-- findByOwner (my listings, newest first) and the owner foreign key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_properties_owner_created
+    ON properties (owner_id, created_at DESC);
+
+-- findByFeaturedTrueAndStatus: only a handful of rows are featured
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_properties_featured
+    ON properties (status) WHERE featured;
+
+-- Foreign keys PostgreSQL doesn't index by itself: image loading, set-based deletes,
+-- favorites by property and role lookup by user
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_property_images_property
+    ON property_images (property_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_favorites_property
+    ON favorites (property_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_roles_user
+    ON user_roles (user_id);
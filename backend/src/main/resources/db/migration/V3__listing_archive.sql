@@ -0,0 +1,46 @@
+-- Cold storage for closed listings (see ListingArchiveService). Rows keep their original
+-- ids; there are no foreign keys back to the live tables they were moved out of.
+
+create table properties_archive (
+    id bigint not null,
+    title varchar(255) not null,
+    description TEXT,
+    type varchar(255) not null check (type in ('HOUSE','APARTMENT','LAND','COMMERCIAL','VILLA','CONDO')),
+    listing_type varchar(255) not null check (listing_type in ('SALE','RENT')),
+    price numeric(12,2) not null,
+    address varchar(255) not null,
+    city varchar(255) not null,
+    district varchar(255) not null,
+    bedrooms integer,
+    bathrooms integer,
+    land_size numeric(10,2),
+    floor_size numeric(10,2),
+    parking_spaces integer,
+    owner_id bigint not null,
+    status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED','SOLD','RENTED')),
+    featured boolean not null,
+    approved_at timestamp(6),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table property_images_archive (
+    id bigint not null,
+    image_url varchar(255),
+    property_id bigint,
+    primary key (id)
+);
+
+create index idx_property_images_archive_property on property_images_archive (property_id);
+
+create table favorites_archive (
+    id bigint not null,
+    user_id bigint not null,
+    property_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_favorites_archive_property on favorites_archive (property_id);
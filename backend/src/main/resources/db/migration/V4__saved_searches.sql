@@ -0,0 +1,33 @@
+-- Saved searches and the alerts raised when a newly approved listing matches one
+
+create table saved_searches (
+    id bigserial not null,
+    user_id bigint not null references users,
+    name varchar(255) not null,
+    type varchar(255) check (type in ('HOUSE','APARTMENT','LAND','COMMERCIAL','VILLA','CONDO')),
+    listing_type varchar(255) check (listing_type in ('SALE','RENT')),
+    district varchar(255),
+    city varchar(255),
+    min_price numeric(12,2),
+    max_price numeric(12,2),
+    min_bedrooms integer,
+    keyword varchar(255),
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_saved_searches_user on saved_searches (user_id);
+
+create table saved_search_alerts (
+    id bigserial not null,
+    user_id bigint not null,
+    saved_search_id bigint not null,
+    property_id bigint not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    -- One alert per search and listing, however often the approval is delivered
+    constraint uq_saved_search_alerts_search_property unique (saved_search_id, property_id)
+);
+
+-- A user's newest alerts first
+create index idx_saved_search_alerts_user_created on saved_search_alerts (user_id, created_at desc);
@@ -0,0 +1,38 @@
+package com.realestate;
+
+import com.realestate.model.Property;
+import com.realestate.model.User;
+
+import java.math.BigDecimal;
+
+/**
+ * Smallest valid entities for tests: a user and an approved Kandy house for sale. Callers
+ * set whatever their test is about on top.
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("x");
+        return user;
+    }
+
+    public static Property property(User owner, String title) {
+        Property property = new Property();
+        property.setTitle(title);
+        property.setType(Property.PropertyType.HOUSE);
+        property.setListingType(Property.ListingType.SALE);
+        property.setPrice(new BigDecimal("1000.00"));
+        property.setAddress("1 Main");
+        property.setCity("Kandy");
+        property.setDistrict("Kandy");
+        property.setStatus(Property.PropertyStatus.APPROVED);
+        property.setOwner(owner);
+        return property;
+    }
+}
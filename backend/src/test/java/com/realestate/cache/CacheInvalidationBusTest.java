@@ -0,0 +1,129 @@
+package com.realestate.cache;
+
+import com.realestate.RealEstateApplication;
+import com.realestate.TestData;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.UserRepository;
+import com.realestate.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes in one JVM, sharing an H2 database and talking over
+ * InMemoryInvalidationTransport. A change committed on one must drop the other's
+ * second-level cache entry, pre-serialized JSON and listings version; a transport gap
+ * must drop everything. Buses are flushed by hand rather than on their timer.
+ */
+class CacheInvalidationBusTest {
+
+    private static final String DATABASE_URL =
+            "jdbc:h2:mem:cache-bus;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    // Keeps anything the nodes write to their upload directory out of the working tree
+    @TempDir
+    static Path uploadDir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private final Function<Property, PropertyDTO> converter = property -> {
+        renders.incrementAndGet();
+        return new PropertyDTO();
+    };
+
+    private Property property;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = node("spring.jpa.hibernate.ddl-auto=create-drop");
+        // The schema is node A's
+        nodeB = node("spring.jpa.hibernate.ddl-auto=none");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext node(String ddl) {
+        return new SpringApplicationBuilder(RealEstateApplication.class)
+                .profiles("local")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + DATABASE_URL,
+                        "--" + ddl,
+                        "--app.upload-dir=" + uploadDir + "/",
+                        "--app.cache-bus.flush-ms=3600000",
+                        "--app.archive.enabled=false");
+    }
+
+    @BeforeEach
+    void setUp() {
+        User owner = nodeA.getBean(UserRepository.class).save(TestData.user("bus-owner-" + System.nanoTime()));
+        property = nodeA.getBean(PropertyRepository.class).save(TestData.property(owner, "Bus house"));
+
+        // Node B caches the listing: entity, JSON and the listings version
+        assertThat(nodeB.getBean(PropertyRepository.class).findById(property.getId())).isPresent();
+        nodeB.getBean(PropertyJsonCache.class).get(property, converter);
+        nodeB.getBean(PropertyService.class).getListingsVersion();
+        assertThat(cachedOnB(property.getId())).isTrue();
+        renders.set(0);
+    }
+
+    @Test
+    void commitOnOneNodeEvictsOnTheOther() {
+        String versionBefore = nodeB.getBean(PropertyService.class).getListingsVersion();
+
+        nodeA.getBean(PropertyService.class).rejectProperty(property.getId());
+        nodeA.getBean(CacheInvalidationBus.class).flush();
+
+        // B's feed relay may already have re-read it; either way B sees the committed row, not its cached copy
+        assertThat(nodeB.getBean(PropertyRepository.class).findById(property.getId())).get()
+                .extracting(Property::getStatus).isEqualTo(Property.PropertyStatus.REJECTED);
+        nodeB.getBean(PropertyJsonCache.class).get(property, converter);
+        assertThat(renders).hasValue(1);
+        assertThat(nodeB.getBean(PropertyService.class).getListingsVersion()).isNotEqualTo(versionBefore);
+    }
+
+    @Test
+    void cachedEntriesSurviveWhenNothingIsSent() {
+        nodeA.getBean(CacheInvalidationBus.class).flush();
+
+        assertThat(cachedOnB(property.getId())).isTrue();
+        nodeB.getBean(PropertyJsonCache.class).get(property, converter);
+        assertThat(renders).hasValue(0);
+    }
+
+    @Test
+    void gapDropsEverythingOnThatNode() {
+        double gapsBefore = nodeB.getBean(MeterRegistry.class).counter("cache.bus.gaps").count();
+
+        nodeB.getBean(InMemoryInvalidationTransport.class).reportGap();
+
+        assertThat(cachedOnB(property.getId())).isFalse();
+        nodeB.getBean(PropertyJsonCache.class).get(property, converter);
+        assertThat(renders).hasValue(1);
+        assertThat(nodeB.getBean(MeterRegistry.class).counter("cache.bus.gaps").count()).isEqualTo(gapsBefore + 1);
+    }
+
+    private static boolean cachedOnB(Long id) {
+        return nodeB.getBean(EntityManagerFactory.class).getCache().contains(Property.class, id);
+    }
+}
@@ -0,0 +1,157 @@
+package com.realestate.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Overlapping renders of one listing version share a single conversion, and the
+ * conversion runs outside the cache's map lock. Waiting on it is bounded, and a failed
+ * conversion is retried rather than handed to whoever was waiting.
+ */
+class PropertyJsonCacheTest {
+
+    private PropertyJsonCache cache;
+    private ExecutorService threads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PropertyJsonCache();
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "renderTimeoutMs", 1000L);
+        cache.init();
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Test
+    void overlappingRendersConvertOnce() throws Exception {
+        Property property = property(1L);
+        CountDownLatch converting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger conversions = new AtomicInteger();
+        Function<Property, PropertyDTO> slow = p -> {
+            conversions.incrementAndGet();
+            converting.countDown();
+            await(release);
+            return dto(p);
+        };
+
+        Future<JsonFragment> first = threads.submit(() -> cache.get(property, slow));
+        assertThat(converting.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<JsonFragment> second = threads.submit(() -> cache.get(property, slow));
+        // Not held up by the conversion: an eviction from the cache bus, or another listing's render
+        threads.submit(() -> cache.evict(1L)).get(1, TimeUnit.SECONDS);
+        assertThat(threads.submit(() -> cache.get(property(2L), PropertyJsonCacheTest::dto)).get(1, TimeUnit.SECONDS)).isNotNull();
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(conversions).hasValue(1);
+    }
+
+    @Test
+    void failedRenderIsRetriedByTheNextCaller() {
+        Property property = property(1L);
+        assertThatThrownBy(() -> cache.get(property, p -> {
+            throw new IllegalStateException("owner lookup failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(property, PropertyJsonCacheTest::dto)).isNotNull();
+    }
+
+    @Test
+    void waiterRetriesWhenTheRenderItWaitedOnFails() throws Exception {
+        Property property = property(1L);
+        CountDownLatch converting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<JsonFragment> failing = threads.submit(() -> cache.get(property, p -> {
+            converting.countDown();
+            await(release);
+            throw new IllegalStateException("owner lookup failed");
+        }));
+        assertThat(converting.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<JsonFragment> waiting = threads.submit(() -> cache.get(property, PropertyJsonCacheTest::dto));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThatThrownBy(failing::get).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void waitOnAStuckRenderIsBounded() throws Exception {
+        Property property = property(1L);
+        CountDownLatch converting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        threads.submit(() -> cache.get(property, p -> {
+            converting.countDown();
+            await(release);
+            return dto(p);
+        }));
+        assertThat(converting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> cache.get(property, PropertyJsonCacheTest::dto))
+                    .isInstanceOf(ResponseStatusException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void newerVersionIsRenderedAgain() {
+        AtomicInteger conversions = new AtomicInteger();
+        Function<Property, PropertyDTO> counting = p -> {
+            conversions.incrementAndGet();
+            return dto(p);
+        };
+        Property property = property(1L);
+        cache.get(property, counting);
+        cache.get(property, counting);
+        property.setUpdatedAt(property.getUpdatedAt().plusSeconds(1));
+        cache.get(property, counting);
+
+        assertThat(conversions).hasValue(2);
+    }
+
+    private static Property property(long id) {
+        Property property = new Property();
+        property.setId(id);
+        property.setTitle("House " + id);
+        property.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return property;
+    }
+
+    private static PropertyDTO dto(Property property) {
+        PropertyDTO dto = new PropertyDTO();
+        dto.setId(property.getId());
+        dto.setTitle(property.getTitle());
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
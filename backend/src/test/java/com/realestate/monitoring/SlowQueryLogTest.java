@@ -0,0 +1,57 @@
+package com.realestate.monitoring;
+
+import com.realestate.dto.SlowQueryDTO;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bound values of a slow statement reach the log and the admin endpoint only when
+ * PropertyRepository issued it; anything else, a users INSERT among it, is masked.
+ */
+class SlowQueryLogTest {
+
+    private final SlowQueryLog log = new SlowQueryLog();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(log, "bufferSize", 10);
+        ReflectionTestUtils.setField(log, "explain", false);
+        log.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.shutdown();
+    }
+
+    @Test
+    void parametersOutsidePropertyRepositoryAreMasked() throws Exception {
+        log.record(null, "insert into users (email, password) values (?, ?)",
+                List.of(setString(1, "someone@example.com"), setString(2, "$2a$10$hash")), 500, null);
+
+        SlowQueryDTO sample = log.getRecent().get(0);
+        assertThat(sample.getSource()).isEqualTo("other");
+        assertThat(sample.getParameters()).containsExactly("?", "?");
+    }
+
+    @Test
+    void propertyRepositoryParametersAreKept() throws Exception {
+        log.record(null, "select * from properties where city = ?",
+                List.of(setString(1, "Kandy")), 500, "PropertyRepository.findByFilters");
+
+        assertThat(log.getRecent().get(0).getParameters()).containsExactly("Kandy");
+    }
+
+    private static ParameterSetOperation setString(int index, String value) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                new Object[]{index, value});
+    }
+}
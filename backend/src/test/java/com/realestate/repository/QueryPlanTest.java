@@ -0,0 +1,129 @@
+package com.realestate.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on a real PostgreSQL and checks that the planner picks the V2
+ * indexes for the repository query shapes. The table is seeded and analyzed so the plans are
+ * the ones a populated database would get, not the seq scans of an empty one.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                // Same as spring.flyway.postgresql.transactional-lock: CONCURRENTLY can't wait on the transactional lock
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (username, email, password, active, created_at, updated_at)
+                    SELECT 'user' || g, 'user' || g || '@example.com', 'x', true, now(), now()
+                    FROM generate_series(1, 500) g""");
+            // 3 in 5 approved, one in a thousand featured, 25 districts, 500 owners
+            statement.execute("""
+                    INSERT INTO properties (title, description, type, listing_type, price, address, city, district,
+                                            bedrooms, owner_id, status, featured, created_at, updated_at)
+                    SELECT 'Listing ' || g, repeat('A spacious home close to schools. ', 8),
+                           (ARRAY['HOUSE','APARTMENT','LAND','COMMERCIAL','VILLA','CONDO'])[1 + g % 6],
+                           CASE WHEN g % 4 = 0 THEN 'RENT' ELSE 'SALE' END,
+                           1000000 + (g * 7919) % 50000000, g || ' Main Street', 'City ' || g % 100, 'District ' || g % 25,
+                           1 + g % 5, 1 + g % 500,
+                           (ARRAY['APPROVED','APPROVED','APPROVED','PENDING','SOLD'])[1 + g % 5],
+                           g % 1000 = 0, now() - g * interval '1 minute', now() - g * interval '1 minute'
+                    FROM generate_series(1, 50000) g""");
+            statement.execute("""
+                    INSERT INTO property_images (image_url, property_id)
+                    SELECT 'http://localhost/uploads/' || g || '.jpg', 1 + g % 50000
+                    FROM generate_series(1, 100000) g""");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void approvedListingsPageUsesStatusCreatedIndex() throws SQLException {
+        // findByStatus(APPROVED, createdAt desc), getLatestProperties
+        assertThat(plan("SELECT * FROM properties p WHERE p.status = 'APPROVED' ORDER BY p.created_at DESC LIMIT 10"))
+                .contains("idx_properties_status_created")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void ownerListingsUseOwnerCreatedIndex() throws SQLException {
+        // findByOwner (my listings, newest first)
+        assertThat(plan("SELECT * FROM properties p WHERE p.owner_id = 42 ORDER BY p.created_at DESC LIMIT 10"))
+                .contains("idx_properties_owner_created")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void featuredListingsUsePartialIndex() throws SQLException {
+        // findByFeaturedTrueAndStatus: Hibernate binds featured = true, which must still match the WHERE featured index
+        assertThat(plan("SELECT * FROM properties p WHERE p.featured = true AND p.status = 'APPROVED'"))
+                .contains("idx_properties_featured")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void filterCountUsesStatusDistrictTypeIndex() throws SQLException {
+        // findByFilters count query, with the unset filters' null guards as Hibernate renders them
+        assertThat(plan("""
+                SELECT count(*) FROM properties p WHERE
+                ('APARTMENT' IS NULL OR p.type = 'APARTMENT') AND
+                (NULL::varchar IS NULL OR p.listing_type = NULL) AND
+                ('District 3' IS NULL OR p.district = 'District 3') AND
+                (NULL::varchar IS NULL OR p.city = NULL) AND
+                (NULL::numeric IS NULL OR p.price >= NULL) AND
+                (NULL::numeric IS NULL OR p.price <= NULL) AND
+                (NULL::integer IS NULL OR p.bedrooms >= NULL) AND
+                ('APPROVED' IS NULL OR p.status = 'APPROVED')"""))
+                .contains("idx_properties_status_district_type_price")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void imagesByPropertyUseForeignKeyIndex() throws SQLException {
+        // Property.images (EAGER) and the set-based image deletes
+        assertThat(plan("SELECT * FROM property_images i WHERE i.property_id = 42"))
+                .contains("idx_property_images_property")
+                .doesNotContain("Seq Scan");
+    }
+
+    private static String plan(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,85 @@
+package com.realestate.repository;
+
+import com.realestate.config.HibernateCacheConfig;
+import com.realestate.model.Property;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+
+import static com.realestate.TestData.property;
+import static com.realestate.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeat reads of a cached entity are served from the second-level cache. Not
+ * transactional, so every repository call gets its own session and the first-level
+ * cache can't hide a database round trip.
+ */
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@ActiveProfiles("local")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatFindByIdIsServedFromSecondLevelCache() {
+        Long id = propertyRepository.save(property(userRepository.save(user("cache-owner")), "Cached house")).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        // First read goes to the database and fills the region
+        assertThat(propertyRepository.findById(id)).isPresent();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(propertyRepository.findById(id)).get().extracting(Property::getTitle).isEqualTo("Cached house");
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("properties").getHitCount()).isEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("properties").getMissCount()).isZero();
+    }
+
+    @Test
+    void updateTimestampsRegionIsNotSizeBounded() {
+        Cache<?, ?> timestamps = hibernateCacheManager
+                .getCache("default-update-timestamps-region")
+                .unwrap(Cache.class);
+
+        assertThat(timestamps.policy().eviction()).isEmpty();
+        assertThat(timestamps.policy().expireAfterAccess()).isEmpty();
+        assertThat(timestamps.policy().expireAfterWrite()).isEmpty();
+    }
+}
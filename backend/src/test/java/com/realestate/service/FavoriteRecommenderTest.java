@@ -0,0 +1,100 @@
+package com.realestate.service;
+
+import com.realestate.config.HibernateCacheConfig;
+import com.realestate.model.Favorite;
+import com.realestate.model.Property;
+import com.realestate.model.User;
+import com.realestate.repository.FavoriteRepository;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.realestate.TestData.property;
+import static com.realestate.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Co-occurrence pairs come from a user's latest favorites, the same window recommend()
+ * scores from, whether the model was rebuilt or updated for a changed user.
+ */
+@DataJpaTest
+@Import({HibernateCacheConfig.class, FavoriteRecommender.class, SimpleMeterRegistry.class})
+@ActiveProfiles("local")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "app.recommend.max-favorites-per-user=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FavoriteRecommenderTest {
+
+    @Autowired
+    private FavoriteRecommender recommender;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User heavy;
+    private User light;
+    private Property oldest;
+    private Property middle;
+    private Property newest;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository.deleteAll();
+        User owner = userRepository.save(user("owner-" + System.nanoTime()));
+        heavy = userRepository.save(user("heavy-" + System.nanoTime()));
+        light = userRepository.save(user("light-" + System.nanoTime()));
+        oldest = propertyRepository.save(property(owner, "Favorite house"));
+        middle = propertyRepository.save(property(owner, "Favorite house"));
+        newest = propertyRepository.save(property(owner, "Favorite house"));
+        // Only middle and newest fall in the heavy user's window
+        favorite(heavy, oldest);
+        favorite(heavy, middle);
+        favorite(heavy, newest);
+        favorite(light, newest);
+    }
+
+    @Test
+    void rebuildPairsTheLatestFavorites() {
+        recommender.requestRebuild();
+        recommender.refresh();
+
+        assertThat(recommender.recommend(light.getId(), 10)).containsExactly(middle.getId());
+    }
+
+    @Test
+    void changedUserPairsTheLatestFavorites() {
+        recommender.requestRebuild();
+        recommender.refresh();
+        Property latest = propertyRepository.save(property(middle.getOwner(), "Favorite house"));
+        favorite(heavy, latest);
+
+        recommender.userChanged(heavy.getId());
+        recommender.refresh();
+
+        // The heavy user's window is now newest and latest; middle dropped out of it
+        assertThat(recommender.recommend(light.getId(), 10)).containsExactly(latest.getId());
+    }
+
+    private void favorite(User user, Property property) {
+        Favorite favorite = new Favorite();
+        favorite.setUser(user);
+        favorite.setProperty(property);
+        favoriteRepository.save(favorite);
+    }
+}
@@ -0,0 +1,111 @@
+package com.realestate.service;
+
+import com.realestate.config.HibernateCacheConfig;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.model.Property;
+import com.realestate.model.SavedSearch;
+import com.realestate.model.User;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.realestate.TestData.property;
+import static com.realestate.TestData.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An approved listing raises an alert for a saved search exactly when findByFilters would
+ * return it for that search's criteria, including near-miss spellings of district and city.
+ */
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@ActiveProfiles("local")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SavedSearchMatcherTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void matchesWhatFindByFiltersReturns() {
+        User owner = userRepository.save(user("matcher-owner"));
+        List<Property> listings = propertyRepository.saveAll(List.of(
+                listing(owner, "Kandy", "Peradeniya"),
+                listing(owner, "kandy", "Peradeniya"),
+                listing(owner, "KANDY", "peradeniya"),
+                listing(owner, "Kandy ", "Peradeniya"),
+                listing(owner, "Kandy", "Katugastota"),
+                listing(owner, "Colombo", "Peradeniya")));
+
+        SavedSearch search = search(owner, "Kandy", "Peradeniya");
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.put(search);
+
+        List<Long> fromQuery = propertyRepository.findByFilters(null, null, search.getDistrict(), search.getCity(),
+                        null, null, null, Property.PropertyStatus.APPROVED, Pageable.unpaged())
+                .map(Property::getId).getContent();
+        List<Long> fromMatcher = listings.stream()
+                .filter(listing -> !matcher.match(dto(listing)).isEmpty())
+                .map(Property::getId)
+                .collect(Collectors.toList());
+
+        assertThat(fromQuery).hasSize(1);
+        assertThat(fromMatcher).containsExactlyInAnyOrderElementsOf(fromQuery);
+    }
+
+    @Test
+    void keywordIsCaseInsensitiveLikeSearchProperties() {
+        User owner = userRepository.save(user("matcher-owner"));
+        Property listing = propertyRepository.save(listing(owner, "Kandy", "Peradeniya"));
+        SavedSearch search = search(owner, null, null);
+        search.setKeyword("LAKE view");
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.put(search);
+
+        assertThat(propertyRepository.searchProperties(search.getKeyword(), Property.PropertyStatus.APPROVED, Pageable.unpaged()))
+                .extracting(Property::getId).containsExactly(listing.getId());
+        assertThat(matcher.match(dto(listing))).extracting(SavedSearchMatcher.Match::savedSearchId).containsExactly(1L);
+    }
+
+    private static Property listing(User owner, String district, String city) {
+        Property property = property(owner, "House with a lake view");
+        property.setCity(city);
+        property.setDistrict(district);
+        return property;
+    }
+
+    private static SavedSearch search(User owner, String district, String city) {
+        SavedSearch search = new SavedSearch();
+        search.setId(1L);
+        search.setUser(owner);
+        search.setName("Kandy houses");
+        search.setDistrict(district);
+        search.setCity(city);
+        return search;
+    }
+
+    private static PropertyDTO dto(Property property) {
+        PropertyDTO dto = new PropertyDTO();
+        dto.setId(property.getId());
+        dto.setTitle(property.getTitle());
+        dto.setAddress(property.getAddress());
+        dto.setType(property.getType());
+        dto.setListingType(property.getListingType());
+        dto.setPrice(property.getPrice());
+        dto.setDistrict(property.getDistrict());
+        dto.setCity(property.getCity());
+        return dto;
+    }
+}
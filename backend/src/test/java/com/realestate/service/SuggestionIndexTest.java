@@ -0,0 +1,118 @@
+package com.realestate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.realestate.dto.SuggestionDTO;
+import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertyRepository.SuggestionSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Memoized prefixes are updated in place as listings change and searches are counted; after
+ * every refresh they must still give what a fresh scan of the terms gives.
+ */
+class SuggestionIndexTest {
+
+    private static final String[] CITIES = {"Kandy", "Kadawatha", "Kalutara", "Katunayake", "Kegalle", "Kelaniya",
+            "Kiribathgoda", "Kurunegala", "Kotte", "Kuliyapitiya"};
+    private static final String[] DISTRICTS = {"Kalmunai", "Kantale", "Kekirawa", "Kilinochchi"};
+    private static final String[] WORDS = {"kabana", "kadjan", "kapok", "karaoke", "kayak", "keel", "kestrel", "kettle",
+            "kiosk", "kitchen", "kiln", "knoll", "koi", "kumquat", "lake", "lawn", "loft", "lodge"};
+
+    private final Map<Long, SuggestionSource> listings = new HashMap<>();
+    private final Random random = new Random(42);
+    private SuggestionIndex index;
+
+    record Source(Long getId, String getTitle, String getAddress, String getCity, String getDistrict) implements SuggestionSource {}
+
+    @BeforeEach
+    void setUp() {
+        PropertyRepository propertyRepository = Mockito.mock(PropertyRepository.class);
+        Mockito.when(propertyRepository.findSuggestionSources(any(), anyLong(), any())).thenAnswer(call -> {
+            long afterId = call.getArgument(1);
+            return listings.values().stream()
+                    .filter(source -> source.getId() > afterId)
+                    .sorted(Comparator.comparing(SuggestionSource::getId))
+                    .toList();
+        });
+        Mockito.when(propertyRepository.findSuggestionSourcesByIdIn(any(), anyCollection())).thenAnswer(call -> {
+            Collection<Long> ids = call.getArgument(1);
+            return ids.stream().map(listings::get).filter(Objects::nonNull).toList();
+        });
+
+        index = new SuggestionIndex();
+        ReflectionTestUtils.setField(index, "propertyRepository", propertyRepository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "maxResults", 5);
+        ReflectionTestUtils.setField(index, "cachedPrefixLength", 12);
+        ReflectionTestUtils.setField(index, "cachedPrefixes", 20000L);
+        ReflectionTestUtils.setField(index, "loadPageSize", 1000);
+        index.init();
+    }
+
+    @Test
+    void memoizedPrefixesMatchAFreshScanAfterChanges() {
+        for (long id = 1; id <= 200; id++) {
+            listings.put(id, listing(id));
+        }
+        index.requestRebuild();
+        index.refresh();
+        List<String> prefixes = prefixes();
+        Cache<?, ?> prefixCache = (Cache<?, ?>) ReflectionTestUtils.getField(index, "prefixCache");
+
+        for (int round = 0; round < 500; round++) {
+            prefixes.forEach(prefix -> index.suggest(prefix, 5));
+            for (int change = random.nextInt(5); change >= 0; change--) {
+                long id = 1 + random.nextInt(260);
+                switch (random.nextInt(4)) {
+                    case 0 -> listings.remove(id);
+                    case 1, 2 -> listings.put(id, listing(id));
+                    default -> index.recordSearch(WORDS[random.nextInt(WORDS.length)]);
+                }
+                index.listingChanged(id);
+            }
+            index.refresh();
+
+            Map<String, List<SuggestionDTO>> memoized = new HashMap<>();
+            prefixes.forEach(prefix -> memoized.put(prefix, index.suggest(prefix, 5)));
+            prefixCache.invalidateAll();
+            for (String prefix : prefixes) {
+                assertThat(memoized.get(prefix)).as("round %d, prefix %s", round, prefix).isEqualTo(index.suggest(prefix, 5));
+            }
+        }
+    }
+
+    private SuggestionSource listing(long id) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        return new Source(id, title, "1 Main", CITIES[random.nextInt(CITIES.length)], DISTRICTS[random.nextInt(DISTRICTS.length)]);
+    }
+
+    private static List<String> prefixes() {
+        List<String> prefixes = new ArrayList<>();
+        for (String[] texts : new String[][]{CITIES, DISTRICTS, WORDS}) {
+            for (String text : texts) {
+                for (int length = 1; length <= text.length(); length++) {
+                    prefixes.add(text.substring(0, length).toLowerCase());
+                }
+            }
+        }
+        return prefixes;
+    }
+}